@@ -1,20 +1,85 @@
 package io.github.fabricetiennette.radiofy.backend.auth;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hashes one-time codes with HMAC-SHA256 keyed by a server-side pepper.
+ * <p>
+ * A 6-digit code has 10^6 values: a slow hash cannot protect it, the attempt limits and
+ * the pepper (absent from the database) do. HMAC costs microseconds where BCrypt cost ~100 ms.
+ * <p>
+ * Format: {@code $otp1$<salt>$<mac>} (base64url), the salt being random per code.
+ * Hashes without this prefix are BCrypt hashes written before, still verified with the
+ * password encoder until they expire.
+ */
 @Service
-@RequiredArgsConstructor
 public class OtpHasher {
 
-    private final PasswordEncoder encoder; // BCrypt bean déjà présent
+    static final String PREFIX = "$otp1$";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final SecureRandom RNG = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final PasswordEncoder encoder; // BCrypt, pour les anciens hashes
+    private final SecretKeySpec pepper;
+
+    public OtpHasher(PasswordEncoder encoder, @Value("${security.otp.pepper}") String pepper) {
+        if (pepper.length() < 32) {
+            throw new IllegalStateException("security.otp.pepper must be at least 32 characters");
+        }
+        this.encoder = encoder;
+        this.pepper = new SecretKeySpec(pepper.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
 
     public String hash(String code) {
-        return encoder.encode(code);
+        byte[] salt = new byte[SALT_BYTES];
+        RNG.nextBytes(salt);
+        return PREFIX + ENCODER.encodeToString(salt) + '$' + ENCODER.encodeToString(mac(salt, code));
     }
 
     public boolean matches(String rawCode, String codeHash) {
-        return encoder.matches(rawCode, codeHash);
+        if (rawCode == null || codeHash == null) {
+            return false;
+        }
+        if (!codeHash.startsWith(PREFIX)) {
+            return encoder.matches(rawCode, codeHash);
+        }
+
+        int separator = codeHash.indexOf('$', PREFIX.length());
+        if (separator < 0) {
+            return false;
+        }
+        try {
+            byte[] salt = DECODER.decode(codeHash.substring(PREFIX.length(), separator));
+            byte[] expected = DECODER.decode(codeHash.substring(separator + 1));
+            return MessageDigest.isEqual(expected, mac(salt, rawCode)); // temps constant
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private byte[] mac(byte[] salt, String code) {
+        try {
+            // Mac n'est pas thread-safe : une instance par appel (coût négligeable)
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(pepper);
+            mac.update(salt);
+            return mac.doFinal(code.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot compute " + ALGORITHM, e);
+        }
     }
 }
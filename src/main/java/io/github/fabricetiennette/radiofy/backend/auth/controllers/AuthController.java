@@ -6,7 +6,6 @@ import io.github.fabricetiennette.radiofy.backend.auth.dtos.RefreshRequest;
 import io.github.fabricetiennette.radiofy.backend.auth.dtos.RegisterRequest;
 import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtService;
 import io.github.fabricetiennette.radiofy.backend.auth.otp.services.OtpService;
-import io.github.fabricetiennette.radiofy.backend.auth.refresh.entities.RefreshToken;
 import io.github.fabricetiennette.radiofy.backend.auth.refresh.services.RefreshTokenService;
 import io.github.fabricetiennette.radiofy.backend.user.services.UserService;
 import io.github.fabricetiennette.radiofy.backend.error.ErrorResponse;
@@ -92,7 +91,7 @@ public class AuthController {
         authManager.authenticate(authToken);
 
         // Issue access token (JWT)
-        String access = jwt.generateAccess(req.email(), Map.of("typ","access"));
+        String access = jwt.generateAccess(u);
 
         // Issue refresh token via DB-backed service (random raw token, hashed in DB)
         String ip = httpRequest.getRemoteAddr();
@@ -108,16 +107,13 @@ public class AuthController {
         String ip = httpRequest.getRemoteAddr();
         String userAgent = httpRequest.getHeader("User-Agent");
 
-        // 1) Validate the old refresh token
-        RefreshToken validToken = refreshTokenService.validateRefreshToken(request.refreshToken());
+        // 1) Validate + rotate the old refresh token (one transaction, one statement)
+        var rotation = refreshTokenService.rotateRefreshToken(request.refreshToken(), ip, userAgent);
 
-        // 2) Rotate the token (invalidate the old one, create a new one)
-        String newRefresh = refreshTokenService.rotateRefreshToken(request.refreshToken(), ip, userAgent);
+        // 2) Issue a new access token
+        String newAccess = jwt.generateAccess(rotation.userId(), rotation.email(), rotation.role());
 
-        // 3) Issue a new access token
-        String newAccess = jwt.generateAccess(validToken.getUser().getEmail(), Map.of("typ","access"));
-
-        return ResponseEntity.ok(AuthResponse.of(newAccess, newRefresh));
+        return ResponseEntity.ok(AuthResponse.of(newAccess, rotation.refreshToken()));
     }
 
     @PostMapping("/verify-email")
@@ -143,7 +139,7 @@ public class AuthController {
 
             var u = userOpt.get();
 
-            String access = jwt.generateAccess(u.getEmail(), Map.of("typ", "access"));
+            String access = jwt.generateAccess(u);
 
             String ip = httpRequest.getRemoteAddr();
             String userAgent = httpRequest.getHeader("User-Agent");
@@ -0,0 +1,39 @@
+package io.github.fabricetiennette.radiofy.backend.auth.controllers;
+
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtSigningKeys;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+/**
+ * Public keys of the access tokens, for verifiers outside this service (reverse proxy, other services).
+ * The document only changes on key rotation: clients revalidate with {@code If-None-Match}.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    private final JwtSigningKeys signingKeys;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = "application/jwk-set+json")
+    public ResponseEntity<String> jwks(WebRequest request) {
+        var jwks = signingKeys.jwks();
+        if (request.checkNotModified(jwks.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(jwks.etag()).cacheControl(CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(jwks.etag())
+                .cacheControl(CACHE_CONTROL)
+                .contentType(MediaType.parseMediaType("application/jwk-set+json"))
+                .body(jwks.json());
+    }
+}
@@ -3,6 +3,7 @@ package io.github.fabricetiennette.radiofy.backend.auth.jwt;
 
 import io.github.fabricetiennette.radiofy.backend.auth.security.JwtAuthenticationException;
 import io.github.fabricetiennette.radiofy.backend.auth.security.JwtAuthenticationException.Reason;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
@@ -14,6 +15,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -22,12 +24,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwt;
+    private final VerifiedTokenCache verifiedTokens;
     private final UserDetailsService uds;
 
     @Override
@@ -47,19 +52,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = header.substring(7);
 
         try {
-            String subject = jwt.getSubject(token); // peut jeter des exceptions jjwt
+            // Une seule vérification (signature + expiration) par requête
+            Claims claims = verifiedTokens.verify(token); // peut jeter des exceptions jjwt
+            String subject = claims.getSubject();
 
             // Déjà authentifié ? alors on ne réauthentifie pas
             if (subject != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails user = uds.loadUserByUsername(subject);
-
-                if (jwt.isTokenValid(token, user.getUsername())) {
-                    var auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-                    auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                } else {
-                    throw new JwtAuthenticationException("Invalid token", JwtAuthenticationException.Reason.INVALID);
+                // Mode stateless : l'identité vient des claims vérifiés, sans requête en base
+                UsernamePasswordAuthenticationToken auth = jwt.isStateless() ? fromClaims(subject, claims) : null;
+
+                if (auth == null) {
+                    UserDetails user = uds.loadUserByUsername(subject);
+                    if (!subject.equals(user.getUsername())) {
+                        throw new JwtAuthenticationException("Invalid token", JwtAuthenticationException.Reason.INVALID);
+                    }
+                    auth = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                 }
+                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
 
             chain.doFilter(request, response);
@@ -76,5 +86,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throw new JwtAuthenticationException("Invalid token", Reason.INVALID);
         }
     }
+
+    /**
+     * Authentication built from the uid/role claims; null for tokens issued without them,
+     * which then go through the user lookup.
+     */
+    private static UsernamePasswordAuthenticationToken fromClaims(String subject, Claims claims) {
+        String userId = claims.get(JwtService.CLAIM_USER_ID, String.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        UUID id;
+        try {
+            id = UUID.fromString(userId);
+        } catch (IllegalArgumentException e) {
+            return null; // uid illisible : on passe par le chargement de l'utilisateur
+        }
+        var principal = new JwtPrincipal(id, subject, role);
+        return new UsernamePasswordAuthenticationToken(principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
 }
 
@@ -0,0 +1,17 @@
+package io.github.fabricetiennette.radiofy.backend.auth.jwt;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.util.UUID;
+
+/**
+ * Principal rebuilt from access token claims in stateless mode.
+ * {@link #getName()} is the email, like the username of the loaded {@code UserDetails}.
+ */
+public record JwtPrincipal(UUID userId, String email, String role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
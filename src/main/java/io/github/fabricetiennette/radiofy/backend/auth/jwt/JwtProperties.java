@@ -1,21 +1,58 @@
 package io.github.fabricetiennette.radiofy.backend.auth.jwt;
 
 import jakarta.validation.constraints.Min;
-import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 @Getter
 @Setter
 @Validated
 @ConfigurationProperties(prefix = "security.jwt")
 public class JwtProperties {
 
-    @NotBlank
+    /**
+     * HMAC key. Signs tokens with {@link Algorithm#HS256}; with an asymmetric algorithm it is
+     * only used when {@link #acceptLegacyHmac} is set.
+     */
     private String secret;
 
+    /**
+     * With ES256/EdDSA, still accepts tokens without {@code kid} signed with {@link #secret},
+     * i.e. those issued before the switch. Turn it on for one {@code accessExpMin} after the
+     * switch, then off again: as long as it is on, a leaked secret still forges tokens.
+     */
+    private boolean acceptLegacyHmac = false;
+
+    @NotNull
+    private Algorithm algorithm = Algorithm.HS256;
+
+    /**
+     * Key pairs for ES256/EdDSA: {@code <kid>.key.pem} (PKCS#8 private key, signing) and
+     * {@code <kid>.pub.pem} (X.509 public key, verification and JWKS). A public key alone keeps
+     * verifying tokens of a retired key. The signing kid is read from the {@code active-kid} file,
+     * or is the greatest kid that has a private key.
+     */
+    private Path keysDir;
+
+    /** How often {@link #keysDir} is rescanned: keys are rotated without a restart. */
+    @NotNull
+    private Duration keysReloadInterval = Duration.ofMinutes(1);
+
     @Min(1)
     private long accessExpMin = 15;
+
+    /**
+     * When true, access tokens carry the user id and role and requests are authenticated from
+     * the verified claims alone, without loading the user. A revoked or demoted user keeps
+     * access until the token expires, so keep {@code accessExpMin} short in this mode.
+     */
+    private boolean stateless = false;
+
+    public enum Algorithm { HS256, ES256, EdDSA }
 }
@@ -1,54 +1,119 @@
 package io.github.fabricetiennette.radiofy.backend.auth.jwt;
 
+import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 public class JwtService {
+
+    public static final String CLAIM_TYPE = "typ";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+
     private final JwtProperties props;
+    private final JwtSigningKeys signingKeys;
 
-    private SecretKey key;
+    /**
+     * HMAC key: signs with HS256, otherwise verifies tokens without kid while
+     * {@link JwtProperties#isAcceptLegacyHmac()} is set (null when it is not).
+     */
+    private final SecretKey hmacKey;
 
-    @PostConstruct
-    void init() {
-        this.key = Keys.hmacShaKeyFor(props.getSecret().getBytes(StandardCharsets.UTF_8));
+    /**
+     * Immutable and thread-safe: built once, shared by every request.
+     * The verification key is picked per token from its {@code kid} header.
+     */
+    private final JwtParser parser;
+
+    public JwtService(JwtProperties props, JwtSigningKeys signingKeys) {
+        this.props = props;
+        this.signingKeys = signingKeys;
+        var secret = props.getSecret();
+        if (signingKeys.isAsymmetric() && !props.isAcceptLegacyHmac()) {
+            this.hmacKey = null;
+        } else if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException(signingKeys.isAsymmetric()
+                    ? "security.jwt.secret is required with security.jwt.accept-legacy-hmac"
+                    : "security.jwt.secret is required with HS256");
+        } else {
+            this.hmacKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        }
+        this.parser = Jwts.parser().keyLocator(this::verificationKey).build();
     }
 
-    private SecretKey key() { return this.key; }
+    // ---------- Verify ----------
+    /**
+     * Parses and verifies {@code token} once: signature and expiry are checked by the parser,
+     * the returned claims are everything the caller needs.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, badly signed or expired
+     */
+    public Claims verify(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
 
-    // ---------- Parse helpers ----------
-    public String getSubject(String token) {
-        return Jwts.parser().verifyWith(key()).build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    public boolean isStateless() {
+        return props.isStateless();
     }
 
-    public boolean isTokenValid(String token, String expectedSubject) {
-        try {
-            var payload = Jwts.parser().verifyWith(key()).build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+    public Duration accessTokenLifetime() {
+        return Duration.ofMinutes(props.getAccessExpMin());
+    }
 
-            return expectedSubject.equals(payload.getSubject())
-                    && payload.getExpiration().toInstant().isAfter(Instant.now());
-        } catch (Exception e) {
-            return false;
+    /**
+     * Tokens with a kid are verified with that public key, tokens without one with the HMAC key
+     * (rejected when there is none). The parser then rejects any algorithm that does not match
+     * the key type.
+     */
+    private Key verificationKey(Header header) {
+        String kid = header instanceof JwsHeader jws ? jws.getKeyId() : null;
+        if (kid != null) {
+            Key key = signingKeys.publicKey(kid);
+            if (key == null) {
+                throw new JwtException("Unknown signing key");
+            }
+            return key;
+        }
+        if (hmacKey == null) {
+            throw new JwtException("Token signed without key id");
         }
+        return hmacKey;
     }
 
     // ---------- Issue tokens ----------
+    /**
+     * Access token for {@code user}. The user id and role are embedded so the token can be
+     * verified without a user lookup (see {@link JwtProperties#isStateless()}).
+     */
+    public String generateAccess(UserAccount user) {
+        return generateAccess(user.getId(), user.getEmail(), user.getRole());
+    }
+
+    public String generateAccess(UUID userId, String email, String role) {
+        Map<String, Object> claims = new HashMap<>(4);
+        claims.put(CLAIM_TYPE, "access");
+        claims.put(CLAIM_USER_ID, userId.toString());
+        claims.put(CLAIM_ROLE, role);
+        return generateAccess(email, claims);
+    }
+
     public String generateAccess(String subject, Map<String, Object> claims) {
         return buildToken(subject, claims, Duration.ofMinutes(props.getAccessExpMin()));
     }
@@ -58,8 +123,15 @@ public class JwtService {
         var builder = Jwts.builder()
                 .subject(subject)
                 .issuedAt(Date.from(now))
-                .expiration(Date.from(now.plus(validity)))
-                .signWith(key());
+                .expiration(Date.from(now.plus(validity)));
+
+        var signingKey = signingKeys.signingKey();
+        if (signingKey != null) {
+            // ES256 or EdDSA, deduced from the key type
+            builder.header().keyId(signingKey.kid()).and().signWith(signingKey.privateKey());
+        } else {
+            builder.signWith(hmacKey);
+        }
 
         if (claims != null && !claims.isEmpty()) {
             builder.claims(claims);
@@ -0,0 +1,225 @@
+package io.github.fabricetiennette.radiofy.backend.auth.jwt;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Asymmetric signing keys (ES256 or EdDSA) loaded from {@link JwtProperties#getKeysDir()}.
+ * <p>
+ * The directory is rescanned periodically and a new snapshot is swapped in with a single
+ * volatile write, so keys can be added, activated and retired without a restart.
+ * A rescan that fails or finds no signing key keeps the previous snapshot.
+ * <p>
+ * Rotation: drop the new pair in the directory (its public key is published in the JWKS
+ * right away), point {@code active-kid} to it once verifiers had time to refresh their
+ * JWKS, then delete the old private key, and the old public key once its last tokens expired.
+ * With {@link JwtProperties.Algorithm#HS256} there are no keys and the JWKS is empty.
+ */
+@Slf4j
+@Component
+public class JwtSigningKeys {
+
+    static final String ACTIVE_KID_FILE = "active-kid";
+    private static final String PRIVATE_SUFFIX = ".key.pem";
+    private static final String PUBLIC_SUFFIX = ".pub.pem";
+
+    public record SigningKey(String kid, PrivateKey privateKey) { }
+
+    /** JWK Set document, served as is, and its entity tag. */
+    public record Jwks(String json, String etag) { }
+
+    private record Snapshot(SigningKey signingKey, Map<String, PublicKey> publicKeys, Jwks jwks) { }
+
+    private static final Snapshot NONE = new Snapshot(null, Map.of(), toJwks(null, Map.of()));
+
+    private final JwtProperties.Algorithm algorithm;
+    private final Path keysDir;
+
+    private volatile Snapshot snapshot = NONE;
+
+    public JwtSigningKeys(JwtProperties props) {
+        this.algorithm = props.getAlgorithm();
+        this.keysDir = props.getKeysDir();
+        if (isAsymmetric()) {
+            if (keysDir == null) {
+                throw new IllegalStateException("security.jwt.keys-dir is required with " + algorithm);
+            }
+            // fail fast at startup: no signing key means no login
+            snapshot = load();
+        }
+    }
+
+    public boolean isAsymmetric() {
+        return algorithm != JwtProperties.Algorithm.HS256;
+    }
+
+    /** Key to sign new tokens with, null with HS256. */
+    public SigningKey signingKey() {
+        return snapshot.signingKey();
+    }
+
+    /** Public key of {@code kid}, null if unknown (or retired). */
+    public PublicKey publicKey(String kid) {
+        return snapshot.publicKeys().get(kid);
+    }
+
+    public Jwks jwks() {
+        return snapshot.jwks();
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.jwt.keys-reload-interval:PT1M}",
+            fixedDelayString = "${security.jwt.keys-reload-interval:PT1M}"
+    )
+    public void reload() {
+        if (!isAsymmetric()) {
+            return;
+        }
+        try {
+            var loaded = load();
+            if (!loaded.jwks().etag().equals(snapshot.jwks().etag())
+                    || !loaded.signingKey().kid().equals(snapshot.signingKey().kid())) {
+                log.info("JWT keys reloaded: signing with '{}', {} public keys",
+                        loaded.signingKey().kid(), loaded.publicKeys().size());
+            }
+            snapshot = loaded;
+        } catch (Exception e) {
+            log.warn("JWT keys reload from {} failed, keeping the current keys", keysDir, e);
+        }
+    }
+
+    private Snapshot load() {
+        Map<String, PublicKey> publicKeys = new TreeMap<>();
+        TreeMap<String, PrivateKey> privateKeys = new TreeMap<>();
+        try (Stream<Path> files = Files.list(keysDir)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(PUBLIC_SUFFIX)) {
+                    publicKeys.put(kid(name, PUBLIC_SUFFIX),
+                            keyFactory().generatePublic(new X509EncodedKeySpec(readPem(file))));
+                } else if (name.endsWith(PRIVATE_SUFFIX)) {
+                    privateKeys.put(kid(name, PRIVATE_SUFFIX),
+                            keyFactory().generatePrivate(new PKCS8EncodedKeySpec(readPem(file))));
+                }
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load JWT keys from " + keysDir, e);
+        }
+
+        String activeKid = readActiveKid(privateKeys);
+        if (activeKid == null || !privateKeys.containsKey(activeKid) || !publicKeys.containsKey(activeKid)) {
+            throw new IllegalStateException("No usable " + algorithm + " signing key pair in " + keysDir);
+        }
+        var signingKey = new SigningKey(activeKid, privateKeys.get(activeKid));
+        return new Snapshot(signingKey, Map.copyOf(publicKeys), toJwks(algorithm, publicKeys));
+    }
+
+    private String readActiveKid(TreeMap<String, PrivateKey> privateKeys) {
+        Path file = keysDir.resolve(ACTIVE_KID_FILE);
+        try {
+            if (Files.isRegularFile(file)) {
+                return Files.readString(file).strip();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + file, e);
+        }
+        return privateKeys.isEmpty() ? null : privateKeys.lastKey();
+    }
+
+    private KeyFactory keyFactory() throws GeneralSecurityException {
+        return KeyFactory.getInstance(algorithm == JwtProperties.Algorithm.ES256 ? "EC" : "Ed25519");
+    }
+
+    private static String kid(String fileName, String suffix) {
+        return fileName.substring(0, fileName.length() - suffix.length());
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        var base64 = new StringBuilder();
+        for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            if (!line.startsWith("-----")) {
+                base64.append(line.strip());
+            }
+        }
+        return Base64.getDecoder().decode(base64.toString());
+    }
+
+    // ---------- JWKS ----------
+
+    private static Jwks toJwks(JwtProperties.Algorithm algorithm, Map<String, PublicKey> publicKeys) {
+        var json = new StringWriter();
+        try (JsonGenerator out = new JsonFactory().createGenerator(json)) {
+            out.writeStartObject();
+            out.writeArrayFieldStart("keys");
+            for (var entry : publicKeys.entrySet()) {
+                out.writeStartObject();
+                out.writeStringField("kid", entry.getKey());
+                out.writeStringField("use", "sig");
+                out.writeStringField("alg", algorithm.name());
+                if (entry.getValue() instanceof ECPublicKey ec) {
+                    out.writeStringField("kty", "EC");
+                    out.writeStringField("crv", "P-256");
+                    out.writeStringField("x", base64Url(unsigned(ec.getW().getAffineX(), 32)));
+                    out.writeStringField("y", base64Url(unsigned(ec.getW().getAffineY(), 32)));
+                } else {
+                    // Ed25519 SubjectPublicKeyInfo: fixed 12-byte prefix, then the 32-byte key
+                    byte[] encoded = entry.getValue().getEncoded();
+                    out.writeStringField("kty", "OKP");
+                    out.writeStringField("crv", "Ed25519");
+                    out.writeStringField("x", base64Url(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length)));
+                }
+                out.writeEndObject();
+            }
+            out.writeEndArray();
+            out.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write the JWKS", e);
+        }
+
+        String body = json.toString();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+            return new Jwks(body, "\"" + base64Url(Arrays.copyOf(digest, 16)) + "\"");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot compute SHA-256", e);
+        }
+    }
+
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length == length) {
+            return bytes;
+        }
+        byte[] out = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, out, length - copy, copy);
+        return out;
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.fabricetiennette.radiofy.backend.auth.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserInvalidationChannel;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claims of access tokens already verified, so a client reusing its token for its whole
+ * lifetime pays for the signature check and JSON parsing once.
+ * <p>
+ * Entries are keyed on the token itself (its hash code being the fast lookup hash), so a
+ * cached entry can only ever answer for the exact token that was verified. Each entry
+ * expires with its token. Invalid tokens are never cached.
+ * <p>
+ * {@link #invalidateSubject(String)} records when a user's sessions were revoked: from then on,
+ * tokens of that user issued before that second are rejected, whether cached or not, until
+ * they would have expired anyway. The revocation reaches the other nodes through the
+ * {@link UserInvalidationChannel}; one missed while a node was disconnected is not recovered.
+ * <p>
+ * Hit/miss stats are published under {@code cache.*} with {@code cache=jwt.verified};
+ * {@code auth.jwt.verify} times both paths ({@code result=hit|miss}), the difference of
+ * their means being the latency saved per hit.
+ */
+@Component
+public class VerifiedTokenCache implements UserInvalidationChannel.Listener {
+
+    private final JwtService jwt;
+    private final boolean enabled;
+    private final Cache<String, Claims> cache;
+    /** Subject -> tokens issued before this instant are revoked; kept for one token lifetime. */
+    private final Cache<String, Instant> revokedBefore;
+    private final Timer hitTimer;
+    private final Timer missTimer;
+    private final UserInvalidationChannel channel;
+
+    public VerifiedTokenCache(JwtService jwt, VerifiedTokenCacheProperties props,
+                              UserInvalidationChannel channel, MeterRegistry meterRegistry) {
+        this.jwt = jwt;
+        this.channel = channel;
+        this.enabled = props.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        this.revokedBefore = Caffeine.newBuilder()
+                .expireAfterWrite(jwt.accessTokenLifetime())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+        this.hitTimer = Timer.builder("auth.jwt.verify").tag("result", "hit").register(meterRegistry);
+        this.missTimer = Timer.builder("auth.jwt.verify").tag("result", "miss").register(meterRegistry);
+        channel.subscribe(this);
+    }
+
+    /**
+     * Same contract as {@link JwtService#verify(String)}, answered from the cache when possible.
+     *
+     * @throws JwtException also for a token issued before its subject was revoked
+     */
+    public Claims verify(String token) {
+        if (!enabled) {
+            return ensureNotRevoked(jwt.verify(token));
+        }
+        long start = System.nanoTime();
+        Claims cached = cache.getIfPresent(token);
+        if (cached != null) {
+            hitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return ensureNotRevoked(cached);
+        }
+
+        Claims claims = ensureNotRevoked(jwt.verify(token));
+        if (claims.getExpiration() != null) {
+            cache.put(token, claims);
+        }
+        missTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
+    /**
+     * Revokes the access tokens of {@code subject} issued until now, e.g. when its sessions are revoked.
+     * {@code iat} only has a one-second precision: tokens issued later in the current second stay
+     * valid, so a login right after the revocation is not rejected.
+     */
+    public void invalidateSubject(String subject) {
+        var cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        revoke(subject, cutoff);
+        channel.publishRevocation(subject, cutoff);
+    }
+
+    /** Received from the channel (this node's own revocations included): applied locally only. */
+    @Override
+    public void onRevoke(String subject, Instant cutoff) {
+        revoke(subject, cutoff);
+    }
+
+    @Override
+    public void onInvalidate(String subject) {
+        // user data changes do not revoke its tokens
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        // nothing to do: revocations sent while disconnected are lost, not replayed
+    }
+
+    private void revoke(String subject, Instant cutoff) {
+        revokedBefore.asMap().merge(subject, cutoff, (a, b) -> a.isAfter(b) ? a : b);
+        cache.asMap().values().removeIf(claims -> subject.equals(claims.getSubject()));
+    }
+
+    private Claims ensureNotRevoked(Claims claims) {
+        String subject = claims.getSubject();
+        Instant cutoff = subject == null ? null : revokedBefore.getIfPresent(subject);
+        if (cutoff != null) {
+            Date issuedAt = claims.getIssuedAt();
+            if (issuedAt == null || issuedAt.toInstant().isBefore(cutoff)) {
+                throw new JwtException("Token revoked");
+            }
+        }
+        return claims;
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.fabricetiennette.radiofy.backend.auth.jwt;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "security.jwt.cache")
+public class VerifiedTokenCacheProperties {
+
+    private boolean enabled = true;
+
+    /** Max number of verified access tokens kept (roughly one per active client). */
+    @Min(1)
+    private long maximumSize = 10_000;
+}
@@ -3,10 +3,13 @@ package io.github.fabricetiennette.radiofy.backend.auth.otp.services;
 import io.github.fabricetiennette.radiofy.backend.auth.OtpHasher;
 import io.github.fabricetiennette.radiofy.backend.auth.otp.entities.EmailOtp;
 import io.github.fabricetiennette.radiofy.backend.auth.otp.repositories.EmailOtpCodeRepository;
+import io.github.fabricetiennette.radiofy.backend.housekeeping.ChunkedPurger;
+import io.github.fabricetiennette.radiofy.backend.housekeeping.PurgeTarget;
 import io.github.fabricetiennette.radiofy.backend.user.repositoties.UserAccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +29,7 @@ public class OtpService {
     private final UserAccountRepository userRepo;
     private final SmtpEmailSender smtpEmailSender;
     private final OtpHasher otpHasher;
+    private final ChunkedPurger purger;
 
     @Value("${spring.profiles.active:}")
     private String activeProfile;
@@ -78,11 +82,12 @@ public class OtpService {
     }
 
     /**
-     * Optional: housekeeping endpoint/job – purge used or expired tokens.
+     * Housekeeping job: purges used or expired codes, in batches (see {@link ChunkedPurger}).
+     * Runs daily at 03:30 server time. Uses a configurable cron if provided.
      */
-    @Transactional
-    public int purgeExpiredOrConsumed() {
-        return otpRepo.deleteExpiredOrConsumed(Instant.now());
+    @Scheduled(cron = "${security.otp.purge.cron:0 30 3 * * *}")
+    public void purgeExpiredOrConsumed() {
+        purger.purge(PurgeTarget.EMAIL_OTPS);
     }
 
     // ---- Exceptions (runtime, simple) ----
@@ -1,6 +1,8 @@
 package io.github.fabricetiennette.radiofy.backend.auth.otp.services;
 
 import io.github.fabricetiennette.radiofy.backend.auth.OtpHasher;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.VerifiedTokenCache;
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserDetailsCache;
 import io.github.fabricetiennette.radiofy.backend.auth.otp.entities.EmailOtp;
 import io.github.fabricetiennette.radiofy.backend.auth.otp.repositories.EmailOtpCodeRepository;
 import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
@@ -24,6 +26,8 @@ public class PasswordResetService {
     private final PasswordEncoder encoder;
     private final SmtpEmailSender smtpEmailSender;
     private final OtpHasher otpHasher;
+    private final VerifiedTokenCache verifiedTokens;
+    private final UserDetailsCache userCache;
 
     // --- Tunables (can be moved to @ConfigurationProperties later)
     @Value("${security.otp.length:6}")
@@ -136,6 +140,8 @@ public class PasswordResetService {
     private void updatePassword(UserAccount u, String raw) {
         u.setPasswordHash(encoder.encode(raw));
         users.save(u);
+        verifiedTokens.invalidateSubject(u.getEmail());
+        userCache.invalidate(u.getEmail());
     }
 
     // ---------- exceptions (simple runtime types for controller mapping) ----------
@@ -0,0 +1,108 @@
+package io.github.fabricetiennette.radiofy.backend.auth.password;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt with a cost factor chosen for the hardware it runs on.
+ * <p>
+ * {@link #calibrate} picks the highest cost whose hashing time stays within a target latency.
+ * Stored hashes with a lower cost report {@link #upgradeEncoding(String)}, so Spring Security
+ * rehashes them with the current cost on the next successful login. Stronger hashes are kept:
+ * a node that calibrated lower must not weaken them. Calibration is meant for local runs;
+ * production pins the cost so every node hashes alike.
+ * <p>
+ * Hashing time is recorded as {@code password.hashing.bcrypt} (histogram) tagged with
+ * {@code op} and the {@code cost} actually computed.
+ */
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+
+    private final int cost;
+    private final BCryptPasswordEncoder delegate;
+    private final MeterRegistry meterRegistry;
+
+    public AdaptiveBCryptPasswordEncoder(int cost, MeterRegistry meterRegistry) {
+        this.cost = cost;
+        this.delegate = new BCryptPasswordEncoder(cost);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Highest cost in [{@code minCost}, {@code maxCost}] hashing within {@code target} here;
+     * {@code minCost} if even that one is slower. Each step doubles the time, so this takes
+     * about twice the target at most.
+     */
+    public static int calibrate(Duration target, int minCost, int maxCost) {
+        new BCryptPasswordEncoder(minCost).encode("warm-up");
+
+        int chosen = minCost;
+        for (int candidate = minCost; candidate <= maxCost; candidate++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(candidate).encode("calibration");
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > target.toNanos()) {
+                break;
+            }
+            chosen = candidate;
+        }
+        log.info("BCrypt cost calibrated to {} (target {} ms)", chosen, target.toMillis());
+        return chosen;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            timer("encode", cost).record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            timer("matches", costOf(encodedPassword)).record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /** BCrypt hashes weaker than the current cost are rewritten; stronger ones are left alone. */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int stored = costOf(encodedPassword);
+        return stored > 0 && stored < cost;
+    }
+
+    /** Cost of a BCrypt hash, -1 if it is not one. */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        var m = BCRYPT.matcher(encodedPassword);
+        return m.matches() ? Integer.parseInt(m.group(1)) : -1;
+    }
+
+    private Timer timer(String op, int hashCost) {
+        return Timer.builder("password.hashing.bcrypt")
+                .tag("op", op)
+                .tag("cost", hashCost > 0 ? String.valueOf(hashCost) : "invalid")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.fabricetiennette.radiofy.backend.auth.password;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a CPU-heavy encoder (BCrypt) on a dedicated, bounded pool.
+ * <p>
+ * The calling request thread only waits: however many logins arrive, at most
+ * {@code threads} cores hash passwords and the rest of the API keeps its CPU.
+ * When the queue is full, or the hash is not done within the timeout, the call fails fast
+ * with {@link PasswordHashingBusyException} (503 + Retry-After) instead of piling up.
+ * Rehashing an outdated hash after a login is deferred while the pool is busy: it would
+ * double the work of that login and could fail it with a 503 although the password was right.
+ * <p>
+ * Metrics: {@code password.hashing.duration} (op=encode|matches, hashing time only),
+ * {@code password.hashing.queue.depth}, {@code password.hashing.rejected},
+ * {@code password.hashing.upgrade.deferred}, and the {@code executor.*} meters with
+ * {@code name=password.hashing}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final MeterRegistry meterRegistry;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingProperties props, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = props.getTimeout();
+        this.retryAfter = props.getRetryAfter();
+        this.meterRegistry = meterRegistry;
+
+        var threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                props.getThreads(), props.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                props.getQueueCapacity() > 0 ? new ArrayBlockingQueue<>(props.getQueueCapacity()) : new SynchronousQueue<>(),
+                r -> {
+                    var t = new Thread(r, "password-hashing-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hashing");
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a thread")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("password.hashing.duration").tag("op", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.duration").tag("op", "matches").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /** False while every thread is taken or hashes are queued: the next login will upgrade it. */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (!delegate.upgradeEncoding(encodedPassword)) {
+            return false;
+        }
+        if (executor.getActiveCount() >= executor.getMaximumPoolSize() || !executor.getQueue().isEmpty()) {
+            meterRegistry.counter("password.hashing.upgrade.deferred").increment();
+            return false;
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw busy("Password hashing queue is full");
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true); // still queued: never runs
+            throw busy("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private PasswordHashingBusyException busy(String message) {
+        meterRegistry.counter("password.hashing.rejected").increment();
+        return new PasswordHashingBusyException(message, retryAfter);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.fabricetiennette.radiofy.backend.auth.password;
+
+import java.time.Duration;
+
+/**
+ * No password hashing capacity left: mapped to 503 with a {@code Retry-After} header.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
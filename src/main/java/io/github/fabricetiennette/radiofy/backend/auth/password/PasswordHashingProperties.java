@@ -0,0 +1,53 @@
+package io.github.fabricetiennette.radiofy.backend.auth.password;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "security.password-hashing")
+public class PasswordHashingProperties {
+
+    /** Threads running BCrypt: the share of the CPUs auth may use. Default: half of them. */
+    @Min(1)
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /** Hashes waiting for a thread; beyond that, requests are rejected with 503. */
+    @Min(0)
+    private int queueCapacity = 64;
+
+    /** Max time a request waits for its hash (queue + hashing) before giving up with 503. */
+    @NotNull
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /** Retry-After sent with the 503. */
+    @NotNull
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    /** Fixed BCrypt cost; when unset, it is calibrated at startup against {@link #bcryptTargetLatency}. */
+    @Min(4)
+    @Max(31)
+    private Integer bcryptCost;
+
+    /** When false, {@link #bcryptCost} is required: production nodes must all hash with the same cost. */
+    private boolean bcryptCalibration = true;
+
+    /** Time one hash should take on this hardware. */
+    @NotNull
+    private Duration bcryptTargetLatency = Duration.ofMillis(100);
+
+    /** Calibration bounds: never below the Spring Security default of 10. */
+    @Min(4)
+    private int bcryptMinCost = 10;
+
+    @Max(31)
+    private int bcryptMaxCost = 16;
+}
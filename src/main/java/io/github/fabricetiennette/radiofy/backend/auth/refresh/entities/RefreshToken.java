@@ -22,7 +22,8 @@ import java.util.UUID;
 @Table(
         name = "refresh_tokens",
         uniqueConstraints = {
-                @UniqueConstraint(name = "refresh_tokens_token_hash_key", columnNames = "token_hash")
+                // partitioned on expires_at (V13): the partition key has to be part of it
+                @UniqueConstraint(name = "refresh_tokens_token_hash_key", columnNames = {"token_hash", "expires_at"})
         }
 )
 public class RefreshToken implements Persistable<UUID> {
@@ -49,7 +50,7 @@ public class RefreshToken implements Persistable<UUID> {
     private UUID parentId;
 
     /** SHA-256 hex (64 chars) of the refresh token. Never store the raw token. */
-    @Column(name = "token_hash", nullable = false, length = 64, unique = true)
+    @Column(name = "token_hash", nullable = false, length = 64)
     private String tokenHash;
 
     @Column(name = "issued_at", nullable = false)
@@ -0,0 +1,18 @@
+package io.github.fabricetiennette.radiofy.backend.auth.refresh.repositories;
+
+import java.util.UUID;
+
+/**
+ * Row returned by {@link RefreshTokenRepository#rotate}: the owner of the rotated token,
+ * enough to issue the new access token without loading the user.
+ */
+public interface RefreshRotation {
+
+    UUID getUserId();
+
+    String getEmail();
+
+    String getRole();
+
+    UUID getFamilyId();
+}
@@ -0,0 +1,54 @@
+package io.github.fabricetiennette.radiofy.backend.auth.refresh.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Daily partitions of {@code refresh_tokens} (range on {@code expires_at}, UTC days, see V13).
+ * Creation and listing are idempotent SQL functions of the migrations (V13, V15).
+ */
+@Repository
+@RequiredArgsConstructor
+public class RefreshTokenPartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Creates the missing partitions for {@code from} to {@code to} (inclusive); returns how many. */
+    public int ensurePartitions(LocalDate from, LocalDate to) {
+        return jdbcTemplate.queryForObject("select refresh_tokens_ensure_partitions(?, ?)",
+                Integer.class, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Drops the partitions whose tokens all expired before {@code before}; returns how many.
+     * <p>
+     * Each one is first detached {@code concurrently}, which never blocks the queries on
+     * {@code refresh_tokens}, then dropped once nothing reads it any more. A detach cannot run in
+     * a transaction: call this outside of one. A detach or drop left unfinished (restart,
+     * lock timeout) is completed on the next call.
+     */
+    public int dropPartitionsBefore(Instant before) {
+        var expired = jdbcTemplate.query(
+                "select name, attached, detach_pending from refresh_tokens_expired_partitions(?)",
+                (rs, i) -> new ExpiredPartition(rs.getString(1), rs.getBoolean(2), rs.getBoolean(3)),
+                Timestamp.from(before));
+        for (var partition : expired) {
+            if (partition.attached()) {
+                // nom contrôlé par la fonction de listage (refresh_tokens_pAAAAMMJJ)
+                jdbcTemplate.execute("alter table refresh_tokens detach partition \"" + partition.name() + "\""
+                        + (partition.detachPending() ? " finalize" : " concurrently"));
+            }
+            jdbcTemplate.queryForObject("select refresh_tokens_drop_detached_partition(?)::text",
+                    String.class, partition.name());
+        }
+        return expired.size();
+    }
+
+    private record ExpiredPartition(String name, boolean attached, boolean detachPending) { }
+}
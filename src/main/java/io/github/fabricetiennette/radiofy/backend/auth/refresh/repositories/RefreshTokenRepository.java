@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,10 +16,45 @@ import java.util.UUID;
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
 
     /**
-     * Find a refresh token by its SHA-256 hex hash (unique index recommended).
+     * Find a refresh token by its SHA-256 hex hash.
+     * <p>
+     * Not pruned: the table is partitioned on {@code expires_at}, which a hash does not give, so
+     * this probes the (token_hash, expires_at) index of every live partition (one per day of
+     * refresh lifetime, plus the days ahead). Use the bounded variant when the expiry is known.
      */
     Optional<RefreshToken> findByTokenHash(String tokenHash);
 
+    /**
+     * Find a refresh token by its hash among those expiring in {@code [from, to)}: with the
+     * expiry day carried by the raw token, a single partition is probed. Expired tokens of that
+     * range are still found, to be reported as such.
+     */
+    @Query("""
+           select t from RefreshToken t
+            where t.tokenHash = :tokenHash
+              and t.expiresAt >= :from
+              and t.expiresAt < :to
+           """)
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash,
+                                           @Param("from") Instant from,
+                                           @Param("to") Instant to);
+
+    /**
+     * Whether the token, expiring in {@code [from, to)}, exists and was revoked
+     * (a revoked family marks all its tokens).
+     */
+    @Query("""
+           select case when count(t) > 0 then true else false end
+             from RefreshToken t
+            where t.tokenHash = :tokenHash
+              and t.expiresAt >= :from
+              and t.expiresAt < :to
+              and t.revokedAt is not null
+           """)
+    boolean isRevoked(@Param("tokenHash") String tokenHash,
+                      @Param("from") Instant from,
+                      @Param("to") Instant to);
+
     /**
      * Revoke all tokens of a family by setting revokedAt for every active token in that family.
      * Returns the number of rows affected.
@@ -32,17 +68,6 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
            """)
     int revokeFamily(@Param("familyId") UUID familyId, @Param("now") Instant now);
 
-    /**
-     * Purge expired tokens (optional housekeeping).
-     * Returns the number of rows deleted.
-     */
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("""
-           delete from RefreshToken t
-            where t.expiresAt <= :now
-           """)
-    int purgeExpired(@Param("now") Instant now);
-
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
        update RefreshToken t
@@ -53,20 +78,62 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
        """)
     int markUsed(@Param("id") UUID id, @Param("now") Instant now);
 
-    @Query("""
-       select t
-       from RefreshToken t
-       join fetch t.user u
-       where t.tokenHash = :tokenHash
-       """)
-    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") String tokenHash);
+    /**
+     * Rotation in one statement: consumes the old token if it is still active (not used,
+     * not revoked, not expired), inserts its successor in the same family and returns the owner.
+     * Empty when the old token cannot be rotated; the row lock taken by the update makes a
+     * concurrent rotation of the same token wait, then find it used.
+     * <p>
+     * {@code [oldExpiresFrom, oldExpiresTo)} is the expiry day carried by the old raw token: the
+     * update only probes that day's partition. Not derived from the current lifetime: tokens
+     * issued under a longer one would no longer rotate and be taken for a reuse.
+     */
+    @Query(value = """
+       with used as (
+           update refresh_tokens t
+              set used_at = :now
+            where t.token_hash = :oldHash
+              and t.used_at is null
+              and t.revoked_at is null
+              and t.expires_at > :now
+              and t.expires_at >= :oldExpiresFrom
+              and t.expires_at < :oldExpiresTo
+        returning t.id, t.user_id, t.family_id
+       ), issued as (
+           insert into refresh_tokens (id, user_id, family_id, parent_id, token_hash,
+                                       issued_at, expires_at, ip_address, user_agent, created_at)
+           select gen_random_uuid(), used.user_id, used.family_id, used.id, :newHash,
+                  :now, :expiresAt, cast(cast(:ip as text) as inet), cast(:userAgent as text), :now
+             from used
+        returning user_id, family_id
+       )
+       select u.id as userId, u.email as email, u.role as role, issued.family_id as familyId
+         from issued
+         join users u on u.id = issued.user_id
+       """, nativeQuery = true)
+    Optional<RefreshRotation> rotate(@Param("oldHash") String oldHash,
+                                     @Param("oldExpiresFrom") Instant oldExpiresFrom,
+                                     @Param("oldExpiresTo") Instant oldExpiresTo,
+                                     @Param("newHash") String newHash,
+                                     @Param("now") Instant now,
+                                     @Param("expiresAt") Instant expiresAt,
+                                     @Param("ip") String ip,
+                                     @Param("userAgent") String userAgent);
 
-    @Modifying
-    @Query("""
-       update RefreshToken t
-          set t.revokedAt = :now
-        where t.user.email = :email
-          and t.revokedAt is null
-       """)
-    int revokeByUserEmail(@Param("email") String email, @Param("now") Instant now);
+    /**
+     * Revokes every active token of the user; returns the families that had one.
+     */
+    @Query(value = """
+       with revoked as (
+           update refresh_tokens t
+              set revoked_at = :now
+             from users u
+            where u.id = t.user_id
+              and u.email = :email
+              and t.revoked_at is null
+        returning t.family_id
+       )
+       select distinct family_id from revoked
+       """, nativeQuery = true)
+    List<UUID> revokeByUserEmail(@Param("email") String email, @Param("now") Instant now);
 }
@@ -0,0 +1,82 @@
+package io.github.fabricetiennette.radiofy.backend.auth.refresh.revocation;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of UUIDs: no false negatives, false positives at
+ * {@link #expectedFalsePositiveRate()}. Lock-free, safe for concurrent adds and reads.
+ */
+final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final AtomicLong entries = new AtomicLong();
+
+    private BloomFilter(long bits, int hashes) {
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) >>> 6));
+        this.bits = words.length() * 64L;
+        this.hashes = hashes;
+    }
+
+    /** Sized for {@code expectedEntries} at {@code falsePositiveRate} (optimal bit and hash counts). */
+    static BloomFilter create(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(expectedEntries, 1);
+        long bits = Math.max(64, (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * LN2));
+        return new BloomFilter(bits, hashes);
+    }
+
+    void add(UUID id) {
+        long h1 = mix(id.getMostSignificantBits() ^ Long.rotateLeft(id.getLeastSignificantBits(), 32));
+        long h2 = mix(id.getLeastSignificantBits() + h1) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long old = words.getAndUpdate(word, w -> w | mask);
+            changed |= (old & mask) == 0;
+        }
+        if (changed) {
+            entries.incrementAndGet();
+        }
+    }
+
+    boolean mightContain(UUID id) {
+        long h1 = mix(id.getMostSignificantBits() ^ Long.rotateLeft(id.getLeastSignificantBits(), 32));
+        long h2 = mix(id.getLeastSignificantBits() + h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Distinct entries added (approximate: an entry whose bits were all set already is not counted). */
+    long entries() {
+        return entries.get();
+    }
+
+    long memoryBytes() {
+        return bits / 8;
+    }
+
+    /** (1 - e^(-kn/m))^k for the current number of entries. */
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashes * (double) entries() / bits), hashes);
+    }
+
+    /** Finalizer of SplitMix64. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.fabricetiennette.radiofy.backend.auth.refresh.revocation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Node-local Bloom filter of the revoked refresh token families, so that a revoked token
+ * presented again (stale client, stolen token) is rejected with one indexed read instead of
+ * a failed rotation.
+ * <p>
+ * Built from {@code refresh_tokens} at startup and every {@code rebuild-interval} (revoked,
+ * unexpired families), and fed by the revocations of this node once their transaction commits.
+ * A miss proves nothing about revocations made by other nodes since the last rebuild, and a hit
+ * may be a false positive: the database stays the authority, and every hit is confirmed there
+ * before a token is rejected, so a false positive never logs an active session out.
+ * <p>
+ * Until the first build, or once more families were added than it was sized for (its false
+ * positive rate would drift), the filter answers "not revoked" and everything goes to the database.
+ * Size, entries and expected false positive rate are published under
+ * {@code auth.refresh.revocation.filter.*} (actuator metrics).
+ */
+@Slf4j
+@Component
+public class RevokedFamilyFilter {
+
+    private static final String REVOKED_FAMILIES = """
+            select distinct family_id
+              from refresh_tokens
+             where revoked_at is not null
+               and expires_at > ?
+            """;
+
+    private final RevokedFamilyFilterProperties props;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter rejected;
+    private final Counter falsePositives;
+
+    private volatile BloomFilter filter;     // null until the first build
+    private volatile long capacity;
+    private List<UUID> revokedDuringRebuild; // guarded by this
+
+    public RevokedFamilyFilter(RevokedFamilyFilterProperties props, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rejected = Counter.builder("auth.refresh.revocation.filter.rejected")
+                .description("Refresh tokens rejected by the filter, once confirmed by the database")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("auth.refresh.revocation.filter.false.positives")
+                .description("Filter hits the database found not revoked")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh.revocation.filter.memory", this, f -> f.filter == null ? 0 : f.filter.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh.revocation.filter.entries", this, f -> f.filter == null ? 0 : f.filter.entries())
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh.revocation.filter.false.positive.rate", this,
+                        f -> f.filter == null ? 0 : f.filter.expectedFalsePositiveRate())
+                .register(meterRegistry);
+    }
+
+    /**
+     * True if {@code familyId} is known as revoked. A filter hit is only reported once
+     * {@code confirmation} (the database) agrees; a miss skips it.
+     */
+    public boolean isRevoked(UUID familyId, BooleanSupplier confirmation) {
+        if (!mightBeRevoked(familyId)) {
+            return false;
+        }
+        if (confirmation.getAsBoolean()) {
+            rejected.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /** True if {@code familyId} may have been revoked: known as revoked, or a false positive. */
+    public boolean mightBeRevoked(UUID familyId) {
+        var current = filter;
+        if (current == null || familyId == null || current.entries() > capacity) {
+            return false;
+        }
+        return current.mightContain(familyId);
+    }
+
+    /** To call when families are revoked: added once the surrounding transaction commits. */
+    public void revoked(Collection<UUID> familyIds) {
+        if (!props.isEnabled() || familyIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            var ids = List.copyOf(familyIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(ids);
+                }
+            });
+        } else {
+            add(familyIds);
+        }
+    }
+
+    /**
+     * Builds a new filter from the database and swaps it in; revocations made meanwhile
+     * are replayed into it. On failure the current filter is kept.
+     */
+    @Scheduled(initialDelayString = "PT0S", fixedDelayString = "${security.jwt.refresh.revocation-filter.rebuild-interval:PT1H}")
+    public void rebuild() {
+        if (!props.isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            revokedDuringRebuild = new ArrayList<>();
+        }
+        try {
+            long start = System.nanoTime();
+            var families = jdbcTemplate.queryForList(REVOKED_FAMILIES, UUID.class, Timestamp.from(Instant.now()));
+
+            long size = Math.max(props.getExpectedFamilies(), 2L * families.size());
+            var next = BloomFilter.create(size, props.getFalsePositiveRate());
+            families.forEach(next::add);
+            synchronized (this) {
+                revokedDuringRebuild.forEach(next::add);
+                capacity = size;
+                filter = next;
+            }
+            log.info("Revoked family filter rebuilt: {} families, {} KiB in {} ms",
+                    families.size(), next.memoryBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Revoked family filter rebuild failed, keeping the current filter", e);
+        } finally {
+            synchronized (this) {
+                revokedDuringRebuild = null;
+            }
+        }
+    }
+
+    private synchronized void add(Collection<UUID> familyIds) {
+        if (filter != null) {
+            familyIds.forEach(filter::add);
+        }
+        if (revokedDuringRebuild != null) {
+            revokedDuringRebuild.addAll(familyIds);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.fabricetiennette.radiofy.backend.auth.refresh.revocation;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "security.jwt.refresh.revocation-filter")
+public class RevokedFamilyFilterProperties {
+
+    private boolean enabled = true;
+
+    /** Revoked, unexpired families the filter is sized for; it grows at the next rebuild if exceeded. */
+    @Min(1)
+    private long expectedFamilies = 1_000_000;
+
+    /** Chance that an active family is taken for a revoked one (costs one extra lookup to clear it). */
+    @DecimalMin("1e-12")
+    @DecimalMax("0.01")
+    private double falsePositiveRate = 1e-6;
+
+    /** Rebuild from the database: forgets expired families and picks up revocations of the other nodes. */
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
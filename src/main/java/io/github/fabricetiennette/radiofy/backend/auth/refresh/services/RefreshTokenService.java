@@ -1,52 +1,111 @@
 package io.github.fabricetiennette.radiofy.backend.auth.refresh.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.VerifiedTokenCache;
 import io.github.fabricetiennette.radiofy.backend.auth.refresh.entities.RefreshToken;
+import io.github.fabricetiennette.radiofy.backend.auth.refresh.repositories.RefreshTokenPartitionRepository;
 import io.github.fabricetiennette.radiofy.backend.auth.refresh.repositories.RefreshTokenRepository;
+import io.github.fabricetiennette.radiofy.backend.auth.refresh.revocation.RevokedFamilyFilter;
+import io.github.fabricetiennette.radiofy.backend.housekeeping.ChunkedPurger;
+import io.github.fabricetiennette.radiofy.backend.housekeeping.PurgeTarget;
 import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenService {
 
+    /** Upper bound of rotations remembered for the reuse grace window. */
+    private static final int RECENT_ROTATIONS_MAX_SIZE = 10_000;
+
     private final RefreshTokenRepository refreshTokenRepository;
+    private final VerifiedTokenCache verifiedTokens;
+    private final RevokedFamilyFilter revokedFamilies;
+    private final ChunkedPurger purger;
+    private final RefreshTokenPartitionRepository partitionRepository;
+    private final Duration refreshLifetime;
+    private final int partitionDaysAhead;
 
-    // Default duration: 4 days (can be overridden via application.yml)
-    @Value("${security.jwt.refresh.lifetime:PT96H}")
-    private Duration refreshLifetime;
+    /** Successor issued for each old token hash, kept for the reuse grace window (null if disabled). */
+    private final Cache<String, Rotation> recentRotations;
+    private final Counter graceReplays;
+    private final Counter reuseRevocations;
 
     private static final SecureRandom RNG = new SecureRandom();
 
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               VerifiedTokenCache verifiedTokens,
+                               RevokedFamilyFilter revokedFamilies,
+                               ChunkedPurger purger,
+                               RefreshTokenPartitionRepository partitionRepository,
+                               // Default duration: 4 days (can be overridden via application.yml)
+                               @Value("${security.jwt.refresh.lifetime:PT96H}") Duration refreshLifetime,
+                               @Value("${security.jwt.refresh.reuse-grace:PT10S}") Duration reuseGrace,
+                               @Value("${security.jwt.refresh.partitions.days-ahead:7}") int partitionDaysAhead,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.verifiedTokens = verifiedTokens;
+        this.revokedFamilies = revokedFamilies;
+        this.purger = purger;
+        this.partitionRepository = partitionRepository;
+        this.partitionDaysAhead = partitionDaysAhead;
+        this.refreshLifetime = refreshLifetime;
+        this.recentRotations = reuseGrace.isPositive()
+                ? Caffeine.newBuilder()
+                        .maximumSize(RECENT_ROTATIONS_MAX_SIZE)
+                        .expireAfterWrite(reuseGrace)
+                        .build()
+                : null;
+        this.graceReplays = Counter.builder("auth.refresh.reuse")
+                .tag("outcome", "grace")
+                .register(meterRegistry);
+        this.reuseRevocations = Counter.builder("auth.refresh.reuse")
+                .tag("outcome", "revoked")
+                .register(meterRegistry);
+    }
+
     /**
      * Issues a new refresh token for the given user, stores it in the database (hashed),
      * and returns the raw token to be sent back to the client. Never store or log the raw token.
      */
     @Transactional
     public String issueInitialRefreshToken(UserAccount user, String ip, String userAgent) {
-        // 1) Generate a strong RAW token (256-bit, Base64URL without padding)
-        String rawToken = generateRawToken();
+        Instant now = Instant.now();
+        Instant expiresAt = expiryFrom(now);
+
+        // 1) Generate a strong RAW token (256-bit, Base64URL without padding) carrying a new family
+        UUID familyId = UUID.randomUUID();
+        String rawToken = generateRawToken(familyId, expiresAt);
 
         // 2) Compute the token SHA-256 hex
         String tokenHash = sha256Hex(rawToken);
 
-        Instant now = Instant.now();
-        Instant expiresAt = now.plus(refreshLifetime);
-
         // 3) Create the persisted entity (familyId assigned in @PrePersist if null)
         RefreshToken entity = RefreshToken.builder()
                 .user(user)
+                .familyId(familyId)
                 .tokenHash(tokenHash)
                 .issuedAt(now)
                 .expiresAt(expiresAt)
@@ -60,60 +119,61 @@ public class RefreshTokenService {
     }
 
     /**
-     * Rotates a refresh token to ensure session continuity and security.
+     * Validates and rotates a refresh token to ensure session continuity and security.
      * <p>
-     * This method:
+     * The happy path is a single statement ({@link RefreshTokenRepository#rotate}): the old
+     * token is marked used only if it is still active, its successor is inserted in the same
+     * family, and the owner is returned so no user needs to be loaded.
+     * Only when nothing was rotated is the old token read, to report why:
      * <ul>
-     *   <li>Validates the old refresh token.</li>
-     *   <li>Detects and blocks reuse attempts by revoking the entire family.</li>
-     *   <li>Marks the old token as used.</li>
-     *   <li>Generates and persists a new token in the same family.</li>
+     *   <li>unknown: {@link IllegalArgumentException};</li>
+     *   <li>expired or revoked: {@link SecurityException};</li>
+     *   <li>already used within the reuse grace window ({@code security.jwt.refresh.reuse-grace}),
+     *       rotated by this node and its successor not used yet: that successor is returned
+     *       again, so a client retrying the same refresh is not logged out;</li>
+     *   <li>already used otherwise (reuse): the whole family is revoked, then {@link SecurityException}.
+     *       The revocation is committed despite the exception.</li>
      * </ul>
+     * A revoked family is never replayed: revocation also marks the used tokens. A token of a
+     * family in {@link RevokedFamilyFilter} is checked by a plain read first and rejected
+     * without attempting the rotation, if the database confirms the revocation.
      *
      * @param oldRawToken The previous (raw) refresh token provided by the client.
      * @param ip The user's current IP address.
      * @param userAgent The user's User-Agent string.
-     * @return The new raw refresh token to send back to the client.
-     * @throws SecurityException If a reuse attempt is detected.
+     * @return The new raw refresh token and its owner.
      */
-    @Transactional
-    public String rotateRefreshToken(String oldRawToken, String ip, String userAgent) {
+    @Transactional(noRollbackFor = SecurityException.class)
+    public Rotation rotateRefreshToken(String oldRawToken, String ip, String userAgent) {
+        UUID familyId = familyOf(oldRawToken);
+        ExpiryRange oldExpiry = expiryRangeOf(oldRawToken);
         String oldHash = sha256Hex(oldRawToken);
-        RefreshToken oldToken = refreshTokenRepository
-                .findByTokenHash(oldHash)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid or expired refresh token"));
-
-        // 1) Atomically mark the old token as used.
-        // If already used or revoked, the update affects 0 rows → reuse/revoked detected.
-        Instant now = Instant.now();
-        int updated = refreshTokenRepository.markUsed(oldToken.getId(), now);
-        if (updated != 1) {
-            // Reuse or revoked detected: revoke the whole family and stop here.
-            refreshTokenRepository.revokeFamily(oldToken.getFamilyId(), now);
-            throw new SecurityException("Detected refresh token reuse or revoked token. All tokens in the family have been revoked.");
+        if (revokedFamilies.isRevoked(familyId,
+                () -> refreshTokenRepository.isRevoked(oldHash, oldExpiry.from(), oldExpiry.to()))) {
+            throw new SecurityException("Refresh token has been revoked");
         }
+        Instant now = Instant.now();
+        Instant expiresAt = expiryFrom(now);
+        String newRawToken = generateRawToken(familyId, expiresAt);
 
-        // 2) Issue a new token within the same family
-        String newRawToken = generateRawToken();
-        String newHash = sha256Hex(newRawToken);
-        Instant expiresAt = now.plus(refreshLifetime);
-
-        RefreshToken newToken = RefreshToken.builder()
-                .user(oldToken.getUser())
-                .familyId(oldToken.getFamilyId())
-                .parentId(oldToken.getId())
-                .tokenHash(newHash)
-                .issuedAt(now)
-                .expiresAt(expiresAt)
-                .ipAddress(ip)
-                .userAgent(userAgent)
-                .createdAt(now)
-                .build();
-
-        refreshTokenRepository.save(newToken);
-        return newRawToken; // raw value returned to the client
+        var rotated = refreshTokenRepository.rotate(oldHash, oldExpiry.from(), oldExpiry.to(),
+                sha256Hex(newRawToken), now, expiresAt, ip, userAgent);
+        if (rotated.isPresent()) {
+            var owner = rotated.get();
+            var rotation = new Rotation(newRawToken, owner.getUserId(), owner.getEmail(), owner.getRole());
+            // Avant le commit : un doublon concurrent attend le verrou de ligne, puis trouve le successeur.
+            // En cas de rollback l'ancien token reste utilisable, l'entrée n'est donc jamais lue.
+            if (recentRotations != null) {
+                recentRotations.put(oldHash, rotation);
+            }
+            return rotation;
+        }
+        return replayOrReject(oldHash, oldExpiry, now);
     }
 
+    /** New refresh token (raw value, for the client) and the user it belongs to. */
+    public record Rotation(String refreshToken, UUID userId, String email, String role) { }
+
     /**
      * Revokes the entire family of refresh tokens derived from the given raw token.
      * <p>
@@ -137,71 +197,166 @@ public class RefreshTokenService {
      */
     @Transactional
     public int revokeFamilyByRawToken(String rawToken) {
-        String hash = sha256Hex(rawToken);
-        RefreshToken token = refreshTokenRepository
-                .findByTokenHash(hash)
+        RefreshToken token = find(rawToken)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid or unknown refresh token"));
-        return refreshTokenRepository.revokeFamily(token.getFamilyId(), Instant.now());
+        int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), Instant.now());
+        revokedFamilies.revoked(List.of(token.getFamilyId()));
+        return revoked;
     }
 
     /**
-     * Validates a raw refresh token and returns the persisted entity if it is still valid.
-     * Uses a JOIN FETCH to eagerly load the associated User to avoid LazyInitializationException.
+     * Periodically purges expired refresh tokens from the database: the daily partitions that
+     * fully expired are detached then dropped, outside any transaction (see
+     * {@link RefreshTokenPartitionRepository#dropPartitionsBefore}), what is left (today's
+     * partition) is deleted in batches (see {@link ChunkedPurger}).
+     * Runs daily at 03:00 server time. Uses a configurable cron if provided.
+     */
+    @Scheduled(cron = "${security.jwt.refresh.purge.cron:0 0 3 * * *}")
+    public void purgeExpiredTokens() {
+        try {
+            int dropped = partitionRepository.dropPartitionsBefore(Instant.now());
+            if (dropped > 0) {
+                log.info("Dropped {} expired refresh token partitions", dropped);
+            }
+        } catch (Exception e) {
+            // lock_timeout atteint par exemple : on supprime ligne à ligne et on réessaie demain
+            log.warn("Dropping expired refresh token partitions failed", e);
+        }
+        purger.purge(PurgeTarget.REFRESH_TOKENS);
+    }
+
+    /**
+     * Creates the daily partitions ahead of time: every token issued until the next run must
+     * find its partition (expiry = now + lifetime), plus {@code partitions.days-ahead} days of margin.
+     * Runs at startup, then every {@code partitions.maintenance-interval}.
+     */
+    @Scheduled(initialDelayString = "PT0S",
+            fixedDelayString = "${security.jwt.refresh.partitions.maintenance-interval:PT6H}")
+    public void createUpcomingPartitions() {
+        try {
+            var today = LocalDate.now(ZoneOffset.UTC);
+            var last = today.plusDays(refreshLifetime.toDays() + 1 + partitionDaysAhead);
+            int created = partitionRepository.ensurePartitions(today, last);
+            if (created > 0) {
+                log.info("Created {} refresh token partitions, up to {}", created, last);
+            }
+        } catch (Exception e) {
+            log.warn("Refresh token partition maintenance failed, will retry on next run", e);
+        }
+    }
+
+    /**
+     * Revokes all non-revoked refresh tokens for the given user email,
+     * and rejects the user's access tokens issued so far on this node.
+     * Safe to call multiple times (idempotent).
      */
     @Transactional
-    public RefreshToken validateRefreshToken(String rawToken) {
-        String hash = sha256Hex(rawToken);
-        RefreshToken token = refreshTokenRepository
-                .findByTokenHashWithUser(hash) // JOIN FETCH: user is initialized
-                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+    public void revokeAllForUserEmail(String email) {
+        revokedFamilies.revoked(refreshTokenRepository.revokeByUserEmail(email, Instant.now()));
+        verifiedTokens.invalidateSubject(email);
+    }
 
-        Instant now = Instant.now();
+    /* -------------------- helpers -------------------- */
 
-        // Expiration check
-        if (token.getExpiresAt() != null && !now.isBefore(token.getExpiresAt())) {
+    /**
+     * A token that could not be rotated: replays a rotation still in the grace window,
+     * otherwise throws the reason: unknown, expired, revoked, then reuse.
+     */
+    private Rotation replayOrReject(String hash, ExpiryRange expiry, Instant now) {
+        var token = refreshTokenRepository.findByTokenHash(hash, expiry.from(), expiry.to())
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        if (!now.isBefore(token.getExpiresAt())) {
             throw new SecurityException("Refresh token has expired");
         }
-
-        // Revocation check
         if (token.getRevokedAt() != null) {
+            // révoqué par un autre nœud depuis le dernier rebuild : le prochain essai est confirmé sans rotation
+            revokedFamilies.revoked(List.of(token.getFamilyId()));
             throw new SecurityException("Refresh token has been revoked");
         }
-
-        // Reuse detection: if already used, revoke the whole family and block
-        if (token.getUsedAt() != null) {
-            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
-            throw new SecurityException("Detected refresh token reuse. All tokens revoked");
+        var successor = recentRotations == null ? null : recentRotations.getIfPresent(hash);
+        if (successor != null && isActive(successor.refreshToken())) {
+            graceReplays.increment();
+            return successor;
         }
+        reuseRevocations.increment();
+        refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+        revokedFamilies.revoked(List.of(token.getFamilyId()));
+        throw new SecurityException("Detected refresh token reuse. All tokens revoked");
+    }
 
-        // No manual touch of token.getUser() needed anymore
-        return token;
+    /** The successor is only replayed while the client has not moved on to it. */
+    private boolean isActive(String rawToken) {
+        return find(rawToken)
+                .map(t -> t.getUsedAt() == null && t.getRevokedAt() == null)
+                .orElse(false);
     }
 
-    /**
-     * Periodically purges expired refresh tokens from the database.
-     * Runs daily at 03:00 server time. Uses a configurable cron if provided.
-     */
-    @Scheduled(cron = "${security.jwt.refresh.purge.cron:0 0 3 * * *}")
-    @Transactional
-    public void purgeExpiredTokens() {
-        refreshTokenRepository.purgeExpired(Instant.now());
+    /** Token lookup routed to the partition of the expiry day carried by {@code rawToken}. */
+    private Optional<RefreshToken> find(String rawToken) {
+        var expiry = expiryRangeOf(rawToken);
+        return refreshTokenRepository.findByTokenHash(sha256Hex(rawToken), expiry.from(), expiry.to());
+    }
+
+    /** Whole seconds: the day encoded in the token must be the one Postgres files the row under. */
+    private Instant expiryFrom(Instant now) {
+        return now.plus(refreshLifetime).truncatedTo(ChronoUnit.SECONDS);
     }
 
     /**
-     * Revokes all non-revoked refresh tokens for the given user email.
-     * Safe to call multiple times (idempotent).
+     * {@code <family><expiry day>.<secret>}: the family (not secret, and only trusted once the hash of
+     * the whole token matched) lets revoked tokens be rejected before any rotation; the UTC expiry day
+     * (epoch day, 4 bytes) routes the lookups to a single partition (tampering with it only makes the
+     * token unknown). Tokens issued before have no day part, or no prefix at all, and are still
+     * accepted through every live partition; the successors of the latter get no prefix either.
      */
-    @Transactional
-    public void revokeAllForUserEmail(String email) {
-        refreshTokenRepository.revokeByUserEmail(email, Instant.now());
+    private String generateRawToken(UUID familyId, Instant expiresAt) {
+        byte[] bytes = new byte[32]; // 256 bits
+        RNG.nextBytes(bytes);
+        String secret = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        if (familyId == null) {
+            return secret;
+        }
+        var prefix = ByteBuffer.allocate(20)
+                .putLong(familyId.getMostSignificantBits())
+                .putLong(familyId.getLeastSignificantBits())
+                .putInt((int) LocalDate.ofInstant(expiresAt, ZoneOffset.UTC).toEpochDay())
+                .array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(prefix) + '.' + secret;
     }
 
-    /* -------------------- helpers -------------------- */
+    /** Family part of the token, null if absent or malformed. */
+    private static UUID familyOf(String rawToken) {
+        var prefix = prefixOf(rawToken);
+        return prefix == null ? null : new UUID(prefix.getLong(0), prefix.getLong(8));
+    }
 
-    private String generateRawToken() {
-        byte[] bytes = new byte[32]; // 256 bits
-        RNG.nextBytes(bytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    /** Expiry day of the token, every expiry if absent or malformed. */
+    private static ExpiryRange expiryRangeOf(String rawToken) {
+        var prefix = prefixOf(rawToken);
+        if (prefix == null || prefix.capacity() < 20) {
+            return ExpiryRange.ANY;
+        }
+        var day = LocalDate.ofEpochDay(prefix.getInt(16));
+        return new ExpiryRange(day.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    /** Decoded prefix: family (16 bytes, 22 chars) and, since the expiry day, 20 bytes (27 chars). */
+    private static ByteBuffer prefixOf(String rawToken) {
+        int dot = rawToken.indexOf('.');
+        if (dot != 22 && dot != 27) {
+            return null;
+        }
+        try {
+            return ByteBuffer.wrap(Base64.getUrlDecoder().decode(rawToken.substring(0, dot)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Expiries {@code [from, to)} a token is looked up in: one partition when its day is known. */
+    private record ExpiryRange(Instant from, Instant to) {
+        static final ExpiryRange ANY = new ExpiryRange(Instant.EPOCH, Instant.parse("9999-12-31T00:00:00Z"));
     }
 
     private String sha256Hex(String input) {
@@ -1,5 +1,9 @@
 package io.github.fabricetiennette.radiofy.backend.config;
 
+import io.github.fabricetiennette.radiofy.backend.auth.password.AdaptiveBCryptPasswordEncoder;
+import io.github.fabricetiennette.radiofy.backend.auth.password.BoundedPasswordEncoder;
+import io.github.fabricetiennette.radiofy.backend.auth.password.PasswordHashingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,7 +12,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
@@ -20,9 +23,22 @@ import java.util.List;
 @Configuration
 public class SecurityConfig {
 
+    /**
+     * BCrypt on its own bounded pool, so a login storm cannot take every request thread's CPU.
+     * The cost is calibrated for this hardware unless fixed (production pins it); weaker hashes
+     * are rewritten at login (UserAuthService is the UserDetailsPasswordService).
+     */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(PasswordHashingProperties hashingProperties, MeterRegistry meterRegistry) {
+        if (hashingProperties.getBcryptCost() == null && !hashingProperties.isBcryptCalibration()) {
+            throw new IllegalStateException("security.password-hashing.bcrypt-cost is required when bcrypt-calibration is off");
+        }
+        int cost = hashingProperties.getBcryptCost() != null
+                ? hashingProperties.getBcryptCost()
+                : AdaptiveBCryptPasswordEncoder.calibrate(hashingProperties.getBcryptTargetLatency(),
+                        hashingProperties.getBcryptMinCost(), hashingProperties.getBcryptMaxCost());
+        var bcrypt = new AdaptiveBCryptPasswordEncoder(cost, meterRegistry);
+        return new BoundedPasswordEncoder(bcrypt, hashingProperties, meterRegistry);
     }
 
     @Bean
@@ -36,7 +52,7 @@ public class SecurityConfig {
         cfg.setAllowedOrigins(List.of("*")); // serrer plus tard (domain/app mobile)
         cfg.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
         cfg.setAllowedHeaders(List.of("*"));
-        cfg.setExposedHeaders(List.of("Authorization")); // utile pour envoyer le Bearer au client
+        cfg.setExposedHeaders(List.of("Authorization", "X-Next-Cursor")); // Bearer + curseur de pagination /stations/search
         var source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", cfg);
         return source;
@@ -55,6 +71,7 @@ public class SecurityConfig {
                                 "/swagger-ui/**", "/v3/api-docs/**",
                                 "/openapi.yaml", "/api/openapi.yaml", "/api/v1/openapi.yaml",
                                 "/stations/**",
+                                "/.well-known/jwks.json",
                                 "/api/actuator/health", "/api/actuator/info"
                         ).permitAll()
                         .requestMatchers("/actuator/**").permitAll()
@@ -1,10 +1,14 @@
 package io.github.fabricetiennette.radiofy.backend.error;
 
+import io.github.fabricetiennette.radiofy.backend.auth.password.PasswordHashingBusyException;
+import io.github.fabricetiennette.radiofy.backend.radio.search.InvalidCursorException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -35,6 +39,21 @@ public class GlobalExceptionHandler {
         return new ErrorResponse("Not Found", "NOT_FOUND", ex.getMessage(), Instant.now(), req.getRequestURI());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidCursor(InvalidCursorException ex, HttpServletRequest req) {
+        return new ErrorResponse("Bad Request", "INVALID_CURSOR", ex.getMessage(), Instant.now(), req.getRequestURI());
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handleHashingBusy(PasswordHashingBusyException ex, HttpServletRequest req) {
+        log.warn("Rejected {}: {}", req.getRequestURI(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(new ErrorResponse("Service Unavailable", "AUTH_BUSY",
+                        "Too many authentication requests, please retry shortly.", Instant.now(), req.getRequestURI()));
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleConflict(DataIntegrityViolationException ex, HttpServletRequest req) {
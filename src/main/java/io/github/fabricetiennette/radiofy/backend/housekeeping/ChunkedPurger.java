@@ -0,0 +1,166 @@
+package io.github.fabricetiennette.radiofy.backend.housekeeping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes old rows in small batches instead of one unbounded {@code delete}: each batch is
+ * its own short transaction, batches are separated by a pause, and a run stops after its
+ * time budget. The cutoff and progress of a run are kept in {@code purge_state}, so a run cut
+ * short (budget, restart) is resumed later with the same cutoff.
+ * <p>
+ * Runs go to a dedicated thread, one at a time: a purge sleeping between batches for its whole
+ * time budget never holds a thread of the shared scheduler. A target already queued or running
+ * is not queued again.
+ * <p>
+ * Rows purged and run duration are published per table under {@code housekeeping.purge.*}.
+ */
+@Slf4j
+@Component
+public class ChunkedPurger {
+
+    private final PurgeStateRepository repository;
+    private final PurgeProperties props;
+    private final ExecutorService executor;
+    private final Set<PurgeTarget> pending = ConcurrentHashMap.newKeySet();
+    private final Map<PurgeTarget, Counter> rowsPurged = new EnumMap<>(PurgeTarget.class);
+    private final Map<PurgeTarget, Timer> durations = new EnumMap<>(PurgeTarget.class);
+
+    public ChunkedPurger(PurgeStateRepository repository, PurgeProperties props, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.props = props;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            var t = new Thread(r, "housekeeping-purge");
+            t.setDaemon(true);
+            return t;
+        });
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "housekeeping.purge");
+        for (var target : PurgeTarget.values()) {
+            rowsPurged.put(target, Counter.builder("housekeeping.purge.rows")
+                    .tag("table", target.table())
+                    .register(meterRegistry));
+            durations.put(target, Timer.builder("housekeeping.purge.duration")
+                    .tag("table", target.table())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Queues a run purging the rows older than now, unless the previous run is unfinished:
+     * that one is resumed first (its cutoff is older, the next scheduled run covers the rest).
+     *
+     * @return rows deleted by this run, once it is over
+     */
+    public CompletableFuture<Long> purge(PurgeTarget target) {
+        return submit(target, true);
+    }
+
+    /** Queues the continuation of the run of {@code target} cut short by its time budget or a restart, if any. */
+    public CompletableFuture<Long> resume(PurgeTarget target) {
+        return submit(target, false);
+    }
+
+    /** Resumes the runs cut short by their time budget or a restart. */
+    @Scheduled(
+            initialDelayString = "${housekeeping.purge.resume-interval:PT15M}",
+            fixedDelayString = "${housekeeping.purge.resume-interval:PT15M}"
+    )
+    public void resumeUnfinished() {
+        for (var target : PurgeTarget.values()) {
+            resume(target);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Long> submit(PurgeTarget target, boolean startNew) {
+        if (!props.isEnabled()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        if (!pending.add(target)) {
+            log.debug("Purge of {} already queued or running", target.table());
+            return CompletableFuture.completedFuture(0L);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return run(target, startNew);
+                } finally {
+                    pending.remove(target);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+            pending.remove(target);
+            return CompletableFuture.completedFuture(0L);
+        }
+    }
+
+    private long run(PurgeTarget target, boolean startNew) {
+        try {
+            var state = repository.find(target).orElse(null);
+            Instant cutoff;
+            if (state != null && !state.isFinished()) {
+                cutoff = state.cutoff();
+            } else if (startNew) {
+                cutoff = Instant.now();
+                repository.start(target, cutoff, cutoff);
+            } else {
+                return 0;
+            }
+            return purgeUntilDoneOrBudget(target, cutoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            log.warn("Purge of {} failed, will resume on next run", target.table(), e);
+            return 0;
+        }
+    }
+
+    private long purgeUntilDoneOrBudget(PurgeTarget target, Instant cutoff) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + props.getTimeBudget().toNanos();
+        long total = 0;
+        try {
+            while (true) {
+                int deleted = repository.deleteBatch(target, cutoff, props.getBatchSize());
+                total += deleted;
+                rowsPurged.get(target).increment(deleted);
+
+                if (deleted < props.getBatchSize()) {
+                    repository.finish(target, Instant.now());
+                    log.info("Purged {} rows from {} (cutoff {})", total, target.table(), cutoff);
+                    return total;
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    log.info("Purge of {} out of time budget after {} rows, will resume", target.table(), total);
+                    return total;
+                }
+                Thread.sleep(props.getPause());
+            }
+        } finally {
+            durations.get(target).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
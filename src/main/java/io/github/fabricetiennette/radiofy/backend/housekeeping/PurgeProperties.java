@@ -0,0 +1,37 @@
+package io.github.fabricetiennette.radiofy.backend.housekeeping;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "housekeeping.purge")
+public class PurgeProperties {
+
+    private boolean enabled = true;
+
+    /** Rows deleted per statement (one short transaction each). */
+    @Min(1)
+    @Max(100_000)
+    private int batchSize = 5_000;
+
+    /** Pause between two batches, to let replication and autovacuum keep up. */
+    @NotNull
+    private Duration pause = Duration.ofMillis(200);
+
+    /** A run stops after this long; what is left is resumed later with the same cutoff. */
+    @NotNull
+    private Duration timeBudget = Duration.ofMinutes(10);
+
+    /** How often unfinished runs are looked for and resumed. */
+    @NotNull
+    private Duration resumeInterval = Duration.ofMinutes(15);
+}
@@ -0,0 +1,14 @@
+package io.github.fabricetiennette.radiofy.backend.housekeeping;
+
+import java.time.Instant;
+
+/**
+ * Last purge run of a table: rows older than {@code cutoff} are being (or have been) purged.
+ * {@code finishedAt} is null while the run is unfinished.
+ */
+public record PurgeState(Instant cutoff, Instant startedAt, Instant finishedAt, long rowsPurged) {
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.fabricetiennette.radiofy.backend.housekeeping;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * {@code purge_state} bookkeeping and the batch deletes themselves. Plain JDBC without a
+ * surrounding transaction: every statement commits on its own.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PurgeStateRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<PurgeState> find(PurgeTarget target) {
+        var states = jdbcTemplate.query("""
+                select cutoff, started_at, finished_at, rows_purged
+                  from purge_state
+                 where table_name = ?
+                """, (rs, rowNum) -> new PurgeState(
+                rs.getTimestamp("cutoff").toInstant(),
+                rs.getTimestamp("started_at").toInstant(),
+                toInstant(rs.getTimestamp("finished_at")),
+                rs.getLong("rows_purged")), target.table());
+        return states.stream().findFirst();
+    }
+
+    public void start(PurgeTarget target, Instant cutoff, Instant now) {
+        jdbcTemplate.update("""
+                insert into purge_state (table_name, cutoff, started_at, finished_at, rows_purged)
+                values (?, ?, ?, null, 0)
+                on conflict (table_name) do update
+                   set cutoff      = excluded.cutoff,
+                       started_at  = excluded.started_at,
+                       finished_at = null,
+                       rows_purged = 0
+                """, target.table(), Timestamp.from(cutoff), Timestamp.from(now));
+    }
+
+    /** Deletes one batch and counts it in the run, in the same transaction. */
+    public int deleteBatch(PurgeTarget target, Instant cutoff, int batchSize) {
+        // un seul aller-retour : le delete et le compteur partent dans le même statement
+        var sql = """
+                with purged as (%s returning 1)
+                update purge_state
+                   set rows_purged = rows_purged + (select count(*) from purged)
+                 where table_name = ?
+                returning (select count(*) from purged)
+                """.formatted(target.deleteBatch().strip());
+        var deleted = jdbcTemplate.queryForList(sql, Integer.class, Timestamp.from(cutoff), batchSize, target.table());
+        return deleted.isEmpty() ? 0 : deleted.get(0);
+    }
+
+    public void finish(PurgeTarget target, Instant now) {
+        jdbcTemplate.update("update purge_state set finished_at = ? where table_name = ?",
+                Timestamp.from(now), target.table());
+    }
+
+    private static Instant toInstant(Timestamp ts) {
+        return ts == null ? null : ts.toInstant();
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.fabricetiennette.radiofy.backend.housekeeping;
+
+/**
+ * Tables purged by {@link ChunkedPurger}. Each statement deletes one batch of rows older
+ * than the cutoff (first parameter), at most the batch size (second one), found through an
+ * index; rows locked by another purge (other node) are skipped rather than waited for.
+ */
+public enum PurgeTarget {
+
+    REFRESH_TOKENS("refresh_tokens", """
+            delete from refresh_tokens
+             where id in (select id
+                            from refresh_tokens
+                           where expires_at <= ?
+                           limit ?
+                             for update skip locked)
+            """),
+
+    /** Consumed codes go as soon as the run starts (consumed_at is in the past), others once expired. */
+    EMAIL_OTPS("email_otps", """
+            delete from email_otps
+             where id in (select id
+                            from email_otps
+                           where coalesce(consumed_at, expires_at) < ?
+                           limit ?
+                             for update skip locked)
+            """);
+
+    private final String table;
+    private final String deleteBatch;
+
+    PurgeTarget(String table, String deleteBatch) {
+        this.table = table;
+        this.deleteBatch = deleteBatch;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    String deleteBatch() {
+        return deleteBatch;
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.fabricetiennette.radiofy.backend.radio.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Stations fetched by id from the remote API, keyed on stationuuid.
+ * <p>
+ * Used when the local catalog does not know a station (not loaded yet, or a station it
+ * does not hold). Hits are served from memory; all the misses of a lookup are handed to
+ * the loader at once, so they cost a single upstream request. Ids the loader does not
+ * return are cached as missing for a shorter time, so they are not asked again on every lookup.
+ * Stats are published under the {@code cache.*} meters with {@code cache=stations.lookup}.
+ */
+@Component
+public class StationLookupCache {
+
+    private final Cache<String, Optional<RadiofyStationDto>> cache;
+
+    public StationLookupCache(StationLookupCacheProperties props, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfter(new FoundOrMissing(props.getTtl(), props.getNegativeTtl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "stations.lookup");
+    }
+
+    /**
+     * Returns the stations known for {@code ids}; {@code loader} receives all the misses in one call.
+     * Ids the loader does not return are left out, and not asked again until the negative TTL.
+     */
+    public Map<String, RadiofyStationDto> getAll(Collection<String> ids,
+                                                 Function<Set<? extends String>, List<RadiofyStationDto>> loader) {
+        var cached = cache.getAll(ids, missing -> {
+            var loaded = loader.apply(missing);
+            Map<String, Optional<RadiofyStationDto>> byId = HashMap.newHashMap(missing.size());
+            for (var station : loaded) {
+                if (station.id() != null) {
+                    byId.put(station.id(), Optional.of(station));
+                }
+            }
+            for (String id : missing) {
+                byId.putIfAbsent(id, Optional.empty());
+            }
+            return byId;
+        });
+
+        Map<String, RadiofyStationDto> found = HashMap.newHashMap(cached.size());
+        cached.forEach((id, station) -> station.ifPresent(s -> found.put(id, s)));
+        return found;
+    }
+
+    /** Found stations live for the TTL, missing ones for the (shorter) negative TTL. */
+    private record FoundOrMissing(Duration ttl, Duration negativeTtl)
+            implements Expiry<String, Optional<RadiofyStationDto>> {
+
+        @Override
+        public long expireAfterCreate(String id, Optional<RadiofyStationDto> station, long currentTime) {
+            return (station.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, Optional<RadiofyStationDto> station,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(id, station, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, Optional<RadiofyStationDto> station,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
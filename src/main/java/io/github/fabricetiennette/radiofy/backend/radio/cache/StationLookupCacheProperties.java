@@ -0,0 +1,32 @@
+package io.github.fabricetiennette.radiofy.backend.radio.cache;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "radio.lookup-cache")
+public class StationLookupCacheProperties {
+
+    /** Max number of stations kept. */
+    @Min(1)
+    private long maximumSize = 20_000;
+
+    /** Station metadata barely changes; this bounds how long a renamed/moved stream stays stale. */
+    @NotNull
+    private Duration ttl = Duration.ofHours(1);
+
+    /**
+     * How long an id unknown upstream is remembered as missing, so a stale favorite does not
+     * cost a request on every listing. Short: the station may be added back.
+     */
+    @NotNull
+    private Duration negativeTtl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,73 @@
+package io.github.fabricetiennette.radiofy.backend.radio.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+
+/**
+ * Bounded, TTL-based cache of station search results, keyed on the normalized query.
+ * <p>
+ * Each entry remembers the limit it was fetched with, so a request for a smaller limit
+ * is served from a larger cached result. A larger limit triggers a new fetch that replaces the entry.
+ * Hit/miss/eviction stats are published under the {@code cache.*} meters with {@code cache=stations.search}.
+ */
+@Component
+public class StationSearchCache {
+
+    private final boolean enabled;
+    private final Cache<String, CachedResult> cache;
+
+    public StationSearchCache(StationSearchCacheProperties props, MeterRegistry meterRegistry) {
+        this.enabled = props.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfterWrite(props.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "stations.search");
+    }
+
+    /**
+     * Returns at most {@code limit} stations for {@code q}, calling {@code loader} with the
+     * normalized query and the limit only when no cached result can answer the request.
+     */
+    public List<RadiofyStationDto> get(String q, int limit,
+                                       BiFunction<String, Integer, List<RadiofyStationDto>> loader) {
+        String key = normalize(q);
+        if (!enabled) {
+            return loader.apply(key, limit);
+        }
+
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null && cached.covers(limit)) {
+            return cached.first(limit);
+        }
+
+        List<RadiofyStationDto> fresh = loader.apply(key, limit);
+        cache.put(key, new CachedResult(fresh, limit));
+        return fresh;
+    }
+
+    static String normalize(String q) {
+        return q == null ? "" : q.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record CachedResult(List<RadiofyStationDto> stations, int fetchedLimit) {
+
+        /** Enough rows cached, or upstream had fewer rows than asked (nothing more to get). */
+        boolean covers(int limit) {
+            return limit <= fetchedLimit || stations.size() < fetchedLimit;
+        }
+
+        List<RadiofyStationDto> first(int limit) {
+            return stations.size() <= limit ? stations : stations.subList(0, limit);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.fabricetiennette.radiofy.backend.radio.cache;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "radio.cache")
+public class StationSearchCacheProperties {
+
+    private boolean enabled = true;
+
+    /** Max number of distinct queries kept (W-TinyLFU eviction beyond that). */
+    @Min(1)
+    private long maximumSize = 10_000;
+
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(10);
+}
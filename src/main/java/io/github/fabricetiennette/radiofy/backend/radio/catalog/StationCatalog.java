@@ -0,0 +1,79 @@
+package io.github.fabricetiennette.radiofy.backend.radio.catalog;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.gateway.RadioBrowserGateway;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCursor;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchPage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Local, in-memory copy of the Radio Browser station list.
+ * <p>
+ * The snapshot is reloaded periodically in the background and swapped in with a single
+ * volatile write, so searches never block on a refresh and never see a half-built index.
+ * Until the first load succeeds, {@link #isReady()} is false and callers fall back to the remote API.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationCatalog {
+
+    private final RadioBrowserGateway radioBrowserGateway;
+
+    @Value("${radio.catalog.enabled:true}")
+    private boolean enabled;
+
+    private volatile StationIndex index = StationIndex.EMPTY;
+
+    public boolean isReady() {
+        return enabled && !index.isEmpty();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public Map<String, RadiofyStationDto> findAll(Collection<String> ids) {
+        return index.findAll(ids);
+    }
+
+    public StationSearchPage search(StationSearchCriteria criteria, StationSearchCursor after, int limit) {
+        return index.search(criteria, after, limit);
+    }
+
+    /**
+     * Loads a fresh snapshot and swaps it in. On failure the previous snapshot is kept.
+     */
+    @Scheduled(
+            initialDelayString = "${radio.catalog.initial-delay:PT5S}",
+            fixedDelayString = "${radio.catalog.refresh-interval:PT6H}"
+    )
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            var stations = radioBrowserGateway.fetchAllStations();
+
+            if (stations.isEmpty()) {
+                log.warn("Station catalog refresh returned no stations, keeping the current snapshot");
+                return;
+            }
+
+            index = StationIndex.build(stations);
+            log.info("Station catalog refreshed: {} stations in {} ms",
+                    stations.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Station catalog refresh failed, keeping {} cached stations", index.size(), e);
+        }
+    }
+}
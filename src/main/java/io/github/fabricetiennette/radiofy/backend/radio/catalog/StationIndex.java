@@ -0,0 +1,328 @@
+package io.github.fabricetiennette.radiofy.backend.radio.catalog;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCursor;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchPage;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable snapshot of the station catalog with an inverted index over
+ * name, tags, country and language.
+ * <p>
+ * Query tokens are matched as prefixes against the indexed terms (exact matches rank higher),
+ * and every query token must match for a station to be returned.
+ * Stations keep the order of the source list, which is used as the tie breaker
+ * (and as the only order when there is no query: the catalog is loaded most listened first).
+ * <p>
+ * Pages are resumed by keyset (score, source position), so a deep page only keeps
+ * {@code limit + 1} candidates instead of sorting every match. The cursor carries that key
+ * itself rather than pointing at a station, so it still resumes in a newer snapshot
+ * where its station is gone.
+ */
+public final class StationIndex {
+
+    public static final StationIndex EMPTY = build(List.of());
+
+    // Weights: a hit on the station name beats a hit on its metadata
+    private static final int NAME_EXACT = 4;
+    private static final int NAME_PREFIX = 2;
+    private static final int META_EXACT = 2;
+    private static final int META_PREFIX = 1;
+
+    /** Best first: higher score, then earlier in the source list. */
+    private static final Comparator<Hit> RANKING =
+            Comparator.comparingInt(Hit::score).reversed().thenComparingInt(Hit::position);
+
+    /** Packs (score, position) in one cursor key; larger than any catalog. */
+    private static final long SCORE_STRIDE = 1L << 32;
+
+    private final RadiofyStationDto[] stations;
+    private final Map<String, Integer> positions;
+    private final FieldIndex names;
+    private final FieldIndex meta;
+
+    private StationIndex(RadiofyStationDto[] stations, Map<String, Integer> positions, FieldIndex names, FieldIndex meta) {
+        this.stations = stations;
+        this.positions = positions;
+        this.names = names;
+        this.meta = meta;
+    }
+
+    public static StationIndex build(List<RadiofyStationDto> source) {
+        var stations = source.toArray(RadiofyStationDto[]::new);
+        Map<String, Integer> positions = HashMap.newHashMap(stations.length);
+        Map<String, List<Integer>> nameTerms = new HashMap<>();
+        Map<String, List<Integer>> metaTerms = new HashMap<>();
+
+        for (int id = 0; id < stations.length; id++) {
+            var s = stations[id];
+            if (s.id() != null) {
+                positions.putIfAbsent(s.id(), id);
+            }
+            addAll(nameTerms, tokenize(s.name()), id);
+            addAll(metaTerms, tokenize(s.country()), id);
+            addAll(metaTerms, tokenize(s.language()), id);
+            if (s.tags() != null) {
+                for (String tag : s.tags()) {
+                    addAll(metaTerms, tokenize(tag), id);
+                }
+            }
+        }
+        return new StationIndex(stations, positions, FieldIndex.of(nameTerms), FieldIndex.of(metaTerms));
+    }
+
+    public int size() {
+        return stations.length;
+    }
+
+    public boolean isEmpty() {
+        return stations.length == 0;
+    }
+
+    /** Stations of the snapshot among {@code ids}, by id; unknown ids are left out. */
+    public Map<String, RadiofyStationDto> findAll(Collection<String> ids) {
+        Map<String, RadiofyStationDto> found = HashMap.newHashMap(ids.size());
+        for (String id : ids) {
+            Integer position = positions.get(id);
+            if (position != null) {
+                found.put(id, stations[position]);
+            }
+        }
+        return found;
+    }
+
+    public List<RadiofyStationDto> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return search(StationSearchCriteria.of(query), null, limit).stations();
+    }
+
+    /**
+     * Returns up to {@code limit} stations matching the criteria, after {@code after} (first page if null).
+     * Without a query, every station passing the filters matches, in source order.
+     */
+    public StationSearchPage search(StationSearchCriteria criteria, StationSearchCursor after, int limit) {
+        if (isEmpty() || limit <= 0) {
+            return StationSearchPage.EMPTY;
+        }
+
+        if (!criteria.hasQuery()) {
+            // all scores are equal: source order, and the scan can start at the cursor's position
+            var hits = new ArrayList<Hit>(limit + 1);
+            int from = 0;
+            if (after != null) {
+                from = Math.clamp(-after.score().longValue(), 0, stations.length);
+                if (from < stations.length && isCursorStation(from, after)) {
+                    from++;
+                }
+            }
+            for (int id = from; id < stations.length && hits.size() <= limit; id++) {
+                if (matchesFilters(stations[id], criteria)) {
+                    hits.add(new Hit(0, id));
+                }
+            }
+            return toPage(hits, limit);
+        }
+
+        var scores = score(tokenize(criteria.q()));
+        if (scores.isEmpty()) {
+            return StationSearchPage.EMPTY;
+        }
+
+        // keeps the limit + 1 best hits after the cursor, worst on top
+        var best = new PriorityQueue<Hit>(limit + 1, RANKING.reversed());
+        for (var e : scores.entrySet()) {
+            var hit = new Hit(e.getValue(), e.getKey());
+            if (after != null && !isAfter(hit, after)) {
+                continue;
+            }
+            if (!matchesFilters(stations[hit.position()], criteria)) {
+                continue;
+            }
+            best.add(hit);
+            if (best.size() > limit + 1) {
+                best.poll();
+            }
+        }
+        var hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return toPage(hits, limit);
+    }
+
+    /**
+     * Sum of the best weight of every token, for stations matched by all of them (AND semantics).
+     */
+    private Map<Integer, Integer> score(List<String> tokens) {
+        Map<Integer, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Integer, Integer> hits = new HashMap<>();
+            names.collect(token, NAME_EXACT, NAME_PREFIX, hits);
+            meta.collect(token, META_EXACT, META_PREFIX, hits);
+
+            if (scores == null) {
+                scores = hits;
+            } else {
+                scores.keySet().retainAll(hits.keySet());
+                scores.replaceAll((id, score) -> score + hits.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores == null ? Map.of() : scores;
+    }
+
+    /**
+     * Whether {@code hit} ranks after the cursor, by the cursor's key alone. A key tie is the
+     * cursor's own slot: skipped if it still holds the cursor's station, kept if the snapshot
+     * changed and another station moved in.
+     */
+    private boolean isAfter(Hit hit, StationSearchCursor after) {
+        long cursorKey = after.score().longValue();
+        return hit.key() < cursorKey || (hit.key() == cursorKey && !isCursorStation(hit.position(), after));
+    }
+
+    private boolean isCursorStation(int position, StationSearchCursor after) {
+        return after.stationUuid().equals(stations[position].id());
+    }
+
+    private StationSearchPage toPage(List<Hit> hits, int limit) {
+        if (hits.isEmpty()) {
+            return StationSearchPage.EMPTY;
+        }
+        boolean hasMore = hits.size() > limit;
+        int size = hasMore ? limit : hits.size();
+
+        var page = new RadiofyStationDto[size];
+        for (int i = 0; i < size; i++) {
+            page[i] = stations[hits.get(i).position()];
+        }
+        StationSearchCursor next = null;
+        if (hasMore) {
+            var last = hits.get(size - 1);
+            next = new StationSearchCursor(StationSearchCursor.Source.MEMORY,
+                    BigDecimal.valueOf(last.key()), page[size - 1].id());
+        }
+        return new StationSearchPage(List.of(page), next);
+    }
+
+    /** Exact, case-insensitive filters; same semantics as the database search. */
+    private static boolean matchesFilters(RadiofyStationDto s, StationSearchCriteria c) {
+        if (c.country() != null
+                && !c.country().equalsIgnoreCase(s.countryCode())
+                && !c.country().equalsIgnoreCase(s.country())) {
+            return false;
+        }
+        if (c.language() != null && !containsLanguage(s.language(), c.language())) {
+            return false;
+        }
+        if (c.tag() != null && (s.tags() == null || s.tags().stream().noneMatch(c.tag()::equalsIgnoreCase))) {
+            return false;
+        }
+        return c.codec() == null || c.codec().equalsIgnoreCase(s.codec());
+    }
+
+    /** "french,english" contains "English". */
+    private static boolean containsLanguage(String languages, String wanted) {
+        if (languages == null) {
+            return false;
+        }
+        int start = 0;
+        while (start <= languages.length()) {
+            int end = languages.indexOf(',', start);
+            if (end < 0) end = languages.length();
+            if (languages.substring(start, end).strip().equalsIgnoreCase(wanted)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Lower-cases, strips diacritics and splits on anything that is not a letter or a digit.
+     * "Fip Rock / Électro" -> [fip, rock, electro]
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        var folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        var tokens = new ArrayList<String>();
+        var current = new StringBuilder();
+
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private static void addAll(Map<String, List<Integer>> terms, List<String> tokens, int id) {
+        for (String token : tokens) {
+            var postings = terms.computeIfAbsent(token, k -> new ArrayList<>());
+            // stations are visited in order, so a duplicate can only be the last entry
+            if (postings.isEmpty() || postings.get(postings.size() - 1) != id) {
+                postings.add(id);
+            }
+        }
+    }
+
+    /** A matched station: its score and its position in the source list. */
+    private record Hit(int score, int position) {
+
+        /** Decreases along {@link #RANKING}: a higher score, then an earlier position, is larger. */
+        long key() {
+            return score * SCORE_STRIDE - position;
+        }
+    }
+
+    /** Sorted term dictionary with its posting lists (station ids, ascending). */
+    private record FieldIndex(String[] terms, int[][] postings) {
+
+        static FieldIndex of(Map<String, List<Integer>> source) {
+            var terms = source.keySet().toArray(String[]::new);
+            Arrays.sort(terms);
+            var postings = new int[terms.length][];
+            for (int i = 0; i < terms.length; i++) {
+                postings[i] = source.get(terms[i]).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new FieldIndex(terms, postings);
+        }
+
+        void collect(String token, int exactWeight, int prefixWeight, Map<Integer, Integer> into) {
+            int pos = Arrays.binarySearch(terms, token);
+            int from = pos >= 0 ? pos : -pos - 1;
+
+            for (int i = from; i < terms.length && terms[i].startsWith(token); i++) {
+                int weight = terms[i].length() == token.length() ? exactWeight : prefixWeight;
+                for (int id : postings[i]) {
+                    into.merge(id, weight, Math::max);
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package io.github.fabricetiennette.radiofy.backend.radio.controller;
 
 import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationCursorCodec;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
 import io.github.fabricetiennette.radiofy.backend.radio.service.RadioService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,17 +22,48 @@ import java.util.List;
 @RestController
 @RequestMapping("/stations")
 public class StationsController {
+
+    /** Opaque token of the next page, absent on the last page. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final RadioService service;
 
     public StationsController(RadioService service) {
         this.service = service;
     }
 
+    /**
+     * Body stays a plain array (existing clients keep working); the next page is requested
+     * by sending the {@value #NEXT_CURSOR_HEADER} header back as {@code cursor} with the same criteria.
+     */
     @GetMapping("/search")
-    public List<RadiofyStationDto> search(
-            @RequestParam String q,
-            @RequestParam(defaultValue = "20") int limit
+    public ResponseEntity<List<RadiofyStationDto>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) String codec,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(RadioService.MAX_PAGE_SIZE) int limit
+    ) {
+        var criteria = new StationSearchCriteria(q, country, language, tag, codec);
+        var page = service.searchStations(criteria, StationCursorCodec.decode(cursor, criteria), limit);
+
+        var response = ResponseEntity.ok();
+        if (page.next() != null) {
+            response.header(NEXT_CURSOR_HEADER, StationCursorCodec.encode(page.next(), criteria));
+        }
+        return response.body(page.stations());
+    }
+
+    /**
+     * Batch lookup by stationuuid ({@code ?ids=a,b,c}), e.g. to render favorites or recently played.
+     * Stations come back in request order; unknown ids are left out.
+     */
+    @GetMapping("/lookup")
+    public List<RadiofyStationDto> lookup(
+            @RequestParam @NotEmpty @Size(max = RadioService.MAX_LOOKUP_SIZE) List<@NotBlank @Size(max = 64) String> ids
     ) {
-        return service.searchStations(q, limit);
+        return service.lookupStations(ids);
     }
 }
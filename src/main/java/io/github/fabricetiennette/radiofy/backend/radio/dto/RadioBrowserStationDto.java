@@ -6,6 +6,12 @@ public record RadioBrowserStationDto(
         String url_resolved,
         String favicon,
         String country,
+        String countrycode,
         String language,
-        String tags
+        String tags,
+        String codec,
+        int bitrate,
+        int votes,
+        int clickcount,
+        String lastchangetime_iso8601
 ) { }
@@ -8,6 +8,8 @@ public record RadiofyStationDto(
         String streamUrl,
         String imageUrl,
         String country,
+        String countryCode,  // ISO 3166-1 alpha-2
         String language,
-        List<String> tags
+        List<String> tags,
+        String codec         // MP3, AAC...
 ) {}
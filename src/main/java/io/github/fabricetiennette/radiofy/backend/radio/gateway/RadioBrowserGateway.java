@@ -1,31 +1,326 @@
 package io.github.fabricetiennette.radiofy.backend.radio.gateway;
 
 import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
-import org.springframework.core.ParameterizedTypeReference;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
+@Slf4j
 @Component
 public class RadioBrowserGateway {
 
-    private final RestClient restClient;
+    /** Capacity hint for the bulk station list (Radio Browser has ~50k stations). */
+    private static final int CATALOG_SIZE_HINT = 60_000;
 
-    public RadioBrowserGateway() {
-        this.restClient = RestClient.builder()
-                .baseUrl("https://de1.api.radio-browser.info")
-                .build();
+    private final RadioBrowserMirrorPool mirrorPool;
+    private final Duration hedgeDelay;
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RadioBrowserGateway(RadioBrowserMirrorPool mirrorPool, RadioBrowserProperties props) {
+        this.mirrorPool = mirrorPool;
+        this.hedgeDelay = props.getHedgeDelay();
+    }
+
+    public List<RadiofyStationDto> searchByName(String name, int limit) {
+        return search(StationSearchCriteria.of(name), 0, limit);
+    }
+
+    /**
+     * Remote search with the same filters as the local backends. Radio Browser only pages by offset.
+     * Without a name, matching stations come most listened first.
+     */
+    public List<RadiofyStationDto> search(StationSearchCriteria criteria, int offset, int limit) {
+        return execute(RadioBrowserRoute.SEARCH, restClient -> restClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path("/json/stations/search");
+                    if (criteria.hasQuery()) {
+                        uriBuilder.queryParam("name", criteria.q());
+                    } else {
+                        uriBuilder.queryParam("order", "clickcount").queryParam("reverse", true);
+                    }
+                    if (criteria.country() != null) {
+                        if (criteria.country().length() == 2) {
+                            uriBuilder.queryParam("countrycode", criteria.country());
+                        } else {
+                            uriBuilder.queryParam("country", criteria.country()).queryParam("countryExact", true);
+                        }
+                    }
+                    if (criteria.language() != null) {
+                        uriBuilder.queryParam("language", criteria.language()).queryParam("languageExact", true);
+                    }
+                    if (criteria.tag() != null) {
+                        uriBuilder.queryParam("tag", criteria.tag()).queryParam("tagExact", true);
+                    }
+                    if (criteria.codec() != null) {
+                        uriBuilder.queryParam("codec", criteria.codec());
+                    }
+                    if (offset > 0) {
+                        uriBuilder.queryParam("offset", offset);
+                    }
+                    return uriBuilder.queryParam("limit", limit).build();
+                })
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange((request, response) -> decodeStations(response, limit)));
+    }
+
+    /**
+     * Stations by stationuuid, in one request. Unknown ids are simply missing from the result.
+     */
+    public List<RadiofyStationDto> findByUuids(Collection<String> uuids) {
+        return execute(RadioBrowserRoute.SEARCH, restClient -> restClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/json/stations/byuuid")
+                        .queryParam("uuids", String.join(",", uuids))
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange((request, response) -> decodeStations(response, uuids.size())));
+    }
+
+    /**
+     * Full station list (broken streams excluded), most listened first.
+     * Used to build the local catalog, not meant for the request path.
+     */
+    public List<RadiofyStationDto> fetchAllStations() {
+        return execute(RadioBrowserRoute.CATALOG, restClient -> restClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/json/stations")
+                        .queryParam("hidebroken", true)
+                        .queryParam("order", "clickcount")
+                        .queryParam("reverse", true)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange((request, response) -> decodeStations(response, CATALOG_SIZE_HINT)));
+    }
+
+    /**
+     * Full station list with sync metadata, for the database catalog (full sync).
+     */
+    public List<RadioBrowserStationDto> fetchAllStationRecords() {
+        return execute(RadioBrowserRoute.CATALOG, restClient -> restClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/json/stations")
+                        .queryParam("hidebroken", true)
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange((request, response) -> {
+                    ensureSuccess(response);
+                    return RadioBrowserStationDecoder.decodeUpstream(response.getBody(), CATALOG_SIZE_HINT);
+                }));
     }
 
-    public List<RadioBrowserStationDto> searchByName(String name, int limit) {
-        return restClient.get()
+    /**
+     * One page of the station list, most recently changed first (incremental sync).
+     */
+    public List<RadioBrowserStationDto> fetchRecentlyChangedStations(int offset, int limit) {
+        return execute(RadioBrowserRoute.CATALOG, restClient -> restClient.get()
                 .uri(uriBuilder -> uriBuilder
-                        .path("/json/stations/search")
-                        .queryParam("name", name)
+                        .path("/json/stations")
+                        .queryParam("hidebroken", true)
+                        .queryParam("order", "changetimestamp")
+                        .queryParam("reverse", true)
+                        .queryParam("offset", offset)
                         .queryParam("limit", limit)
                         .build())
-                .retrieve()
-                .body(new ParameterizedTypeReference<>() {});
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange((request, response) -> {
+                    ensureSuccess(response);
+                    return RadioBrowserStationDecoder.decodeUpstream(response.getBody(), limit);
+                }));
+    }
+
+    /**
+     * Streams the body straight into {@link RadiofyStationDto}s.
+     */
+    private static List<RadiofyStationDto> decodeStations(ClientHttpResponse response, int sizeHint) throws IOException {
+        ensureSuccess(response);
+        return RadioBrowserStationDecoder.decode(response.getBody(), sizeHint);
+    }
+
+    /**
+     * Error statuses are turned into the same exceptions {@code retrieve()} would throw,
+     * so failover rules stay the same.
+     */
+    private static void ensureSuccess(ClientHttpResponse response) throws IOException {
+        HttpStatusCode status = response.getStatusCode();
+        if (status.is4xxClientError()) {
+            throw new HttpClientErrorException(status, response.getStatusText());
+        }
+        if (status.isError()) {
+            throw new HttpServerErrorException(status, response.getStatusText());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    /* -------------------- mirror selection -------------------- */
+
+    /**
+     * Runs the call on the best mirror and fails over to the next ones on I/O errors and 5xx.
+     * A 4xx is returned as-is: another mirror would reject the same request.
+     * Bulk downloads are never hedged (a slow answer is expected there).
+     */
+    private <T> T execute(RadioBrowserRoute route, Function<RestClient, T> call) {
+        List<RadioBrowserMirror> candidates = mirrorPool.candidates();
+        if (route == RadioBrowserRoute.SEARCH && isHedgingEnabled() && candidates.size() > 1) {
+            return executeHedged(candidates, route, call);
+        }
+        return executeSequentially(candidates, route, call);
+    }
+
+    private <T> T executeSequentially(List<RadioBrowserMirror> candidates, RadioBrowserRoute route,
+                                      Function<RestClient, T> call) {
+        RuntimeException last = null;
+        for (var mirror : candidates) {
+            try {
+                return callMirror(mirror, route, call);
+            } catch (HttpClientErrorException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.warn("Radio Browser mirror {} failed, trying next one: {}", mirror.name(), e.getMessage());
+                last = e;
+            }
+        }
+        throw last != null ? last : new ResourceAccessException("No Radio Browser mirror configured");
+    }
+
+    /**
+     * Sends the call to the best mirror and, if it has not answered within {@code hedgeDelay},
+     * to the second best too. The first successful answer wins and the other call is cancelled.
+     * If both fail, the remaining mirrors are tried in turn.
+     */
+    private <T> T executeHedged(List<RadioBrowserMirror> candidates, RadioBrowserRoute route,
+                                Function<RestClient, T> call) {
+        var remaining = candidates.subList(2, candidates.size());
+        var primary = hedge(candidates.get(0), route, call);
+        try {
+            return primary.result().get(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException slow) {
+            var backup = hedge(candidates.get(1), route, call);
+            try {
+                return firstSuccessful(primary, backup);
+            } catch (HttpClientErrorException e) {
+                throw e;
+            } catch (RuntimeException bothFailed) {
+                if (remaining.isEmpty()) {
+                    throw bothFailed;
+                }
+                log.warn("Radio Browser mirrors {} and {} failed, trying the next ones: {}",
+                        candidates.get(0).name(), candidates.get(1).name(), bothFailed.getMessage());
+                return executeSequentially(remaining, route, call);
+            }
+        } catch (ExecutionException failed) {
+            if (failed.getCause() instanceof HttpClientErrorException e) {
+                throw e;
+            }
+            // primary failed fast: regular failover on the remaining mirrors
+            return executeSequentially(candidates.subList(1, candidates.size()), route, call);
+        } catch (InterruptedException e) {
+            primary.cancel();
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while calling Radio Browser");
+        }
+    }
+
+    /** Winner of the two calls; the loser is cancelled as soon as one succeeds. */
+    private <T> T firstSuccessful(Hedge<T> a, Hedge<T> b) {
+        var winner = new CompletableFuture<T>();
+        a.result().whenComplete((value, error) -> {
+            if (error == null) winner.complete(value);
+            else b.result().whenComplete((v2, e2) -> { if (e2 != null) winner.completeExceptionally(e2); });
+        });
+        b.result().whenComplete((value, error) -> {
+            if (error == null) winner.complete(value);
+            else a.result().whenComplete((v1, e1) -> { if (e1 != null) winner.completeExceptionally(e1); });
+        });
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        } finally {
+            a.cancel();
+            b.cancel();
+        }
+    }
+
+    /** Starts the call on its own (virtual) thread, so that it can be interrupted if it loses. */
+    private <T> Hedge<T> hedge(RadioBrowserMirror mirror, RadioBrowserRoute route, Function<RestClient, T> call) {
+        var result = new CompletableFuture<T>();
+        var cancelled = new AtomicBoolean();
+        var task = hedgeExecutor.submit(() -> {
+            try {
+                result.complete(callMirror(mirror, route, call, cancelled::get));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return new Hedge<>(result, task, cancelled);
+    }
+
+    private record Hedge<T>(CompletableFuture<T> result, Future<?> task, AtomicBoolean cancelled) {
+
+        /** No-op once the call completed. */
+        void cancel() {
+            if (!result.isDone()) {
+                cancelled.set(true);
+                task.cancel(true);
+            }
+        }
+    }
+
+    private <T> T callMirror(RadioBrowserMirror mirror, RadioBrowserRoute route, Function<RestClient, T> call) {
+        return callMirror(mirror, route, call, () -> false);
+    }
+
+    private <T> T callMirror(RadioBrowserMirror mirror, RadioBrowserRoute route, Function<RestClient, T> call,
+                             BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        try {
+            T result = call.apply(mirror.client(route));
+            mirror.recordSuccess(System.nanoTime() - start);
+            return result;
+        } catch (HttpClientErrorException e) {
+            // the mirror answered, the request was wrong
+            mirror.recordSuccess(System.nanoTime() - start);
+            throw e;
+        } catch (RuntimeException e) {
+            // a hedge cancelled because the other mirror won says nothing about this mirror
+            if (!cancelled.getAsBoolean()) {
+                mirror.recordFailure();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isHedgingEnabled() {
+        return hedgeDelay != null && !hedgeDelay.isZero() && !hedgeDelay.isNegative();
     }
 }
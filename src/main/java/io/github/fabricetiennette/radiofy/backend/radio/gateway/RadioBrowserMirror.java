@@ -0,0 +1,106 @@
+package io.github.fabricetiennette.radiofy.backend.radio.gateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One Radio Browser server with its live stats: latency and error rate (both EWMA)
+ * and a circuit that opens after too many consecutive failures.
+ */
+public class RadioBrowserMirror {
+
+    private static final double ALPHA = 0.2;
+
+    private final String name;
+    private final RestClient searchClient;
+    private final RestClient catalogClient;
+    private final int failureThreshold;
+    private final Duration failureCooldown;
+    private final Timer successTimer;
+    private final Counter failureCounter;
+
+    private double latencyMillis = Double.NaN; // NaN until the first sample
+    private double errorRate;
+    private int consecutiveFailures;
+    private Instant unhealthyUntil = Instant.MIN;
+
+    public RadioBrowserMirror(String baseUrl, RadioBrowserRestClients restClients, RadioBrowserProperties props,
+                              MeterRegistry meterRegistry) {
+        this.name = URI.create(baseUrl).getAuthority();
+        this.searchClient = restClients.create(baseUrl, RadioBrowserRoute.SEARCH);
+        this.catalogClient = restClients.create(baseUrl, RadioBrowserRoute.CATALOG);
+        this.failureThreshold = props.getFailureThreshold();
+        this.failureCooldown = props.getFailureCooldown();
+
+        this.successTimer = Timer.builder("radio.browser.requests")
+                .tag("mirror", name).tag("outcome", "success")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("radio.browser.requests.failed")
+                .tag("mirror", name)
+                .register(meterRegistry);
+        Gauge.builder("radio.browser.mirror.latency", this, RadioBrowserMirror::latencyMillis)
+                .tag("mirror", name).baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("radio.browser.mirror.error.rate", this, RadioBrowserMirror::errorRate)
+                .tag("mirror", name)
+                .register(meterRegistry);
+        Gauge.builder("radio.browser.mirror.healthy", this, m -> m.isHealthy() ? 1 : 0)
+                .tag("mirror", name)
+                .register(meterRegistry);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public RestClient client(RadioBrowserRoute route) {
+        return route == RadioBrowserRoute.CATALOG ? catalogClient : searchClient;
+    }
+
+    public synchronized void recordSuccess(long elapsedNanos) {
+        double millis = elapsedNanos / 1_000_000.0;
+        latencyMillis = Double.isNaN(latencyMillis) ? millis : ALPHA * millis + (1 - ALPHA) * latencyMillis;
+        errorRate = (1 - ALPHA) * errorRate;
+        consecutiveFailures = 0;
+        unhealthyUntil = Instant.MIN;
+        successTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void recordFailure() {
+        errorRate = ALPHA + (1 - ALPHA) * errorRate;
+        if (++consecutiveFailures >= failureThreshold) {
+            unhealthyUntil = Instant.now().plus(failureCooldown);
+        }
+        failureCounter.increment();
+    }
+
+    public synchronized boolean isHealthy() {
+        return Instant.now().isAfter(unhealthyUntil);
+    }
+
+    public synchronized double latencyMillis() {
+        return latencyMillis;
+    }
+
+    public synchronized double errorRate() {
+        return errorRate;
+    }
+
+    /**
+     * Lower is better. Unmeasured mirrors rank after measured ones, errors inflate the latency.
+     */
+    synchronized double score() {
+        if (Double.isNaN(latencyMillis)) {
+            return Double.MAX_VALUE;
+        }
+        return latencyMillis * (1 + 4 * errorRate);
+    }
+}
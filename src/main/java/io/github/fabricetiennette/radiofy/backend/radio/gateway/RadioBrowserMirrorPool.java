@@ -0,0 +1,69 @@
+package io.github.fabricetiennette.radiofy.backend.radio.gateway;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pool of Radio Browser mirrors, ranked by measured latency and error rate.
+ * <p>
+ * Every mirror is probed in the background so that idle mirrors keep fresh stats
+ * and unhealthy ones come back into rotation as soon as they answer again.
+ */
+@Slf4j
+@Component
+public class RadioBrowserMirrorPool {
+
+    private final List<RadioBrowserMirror> mirrors;
+
+    public RadioBrowserMirrorPool(RadioBrowserProperties props, RadioBrowserRestClients restClients,
+                                  MeterRegistry meterRegistry) {
+        this.mirrors = props.getMirrors().stream()
+                .map(url -> new RadioBrowserMirror(url, restClients, props, meterRegistry))
+                .toList();
+    }
+
+    /**
+     * Mirrors in the order they should be tried: healthy ones by score, then unhealthy ones
+     * (still worth a last attempt when everything else failed). Ties keep the configured order.
+     */
+    public List<RadioBrowserMirror> candidates() {
+        var healthy = new ArrayList<RadioBrowserMirror>(mirrors.size());
+        var unhealthy = new ArrayList<RadioBrowserMirror>();
+        for (var mirror : mirrors) {
+            (mirror.isHealthy() ? healthy : unhealthy).add(mirror);
+        }
+        healthy.sort(Comparator.comparingDouble(RadioBrowserMirror::score));
+        healthy.addAll(unhealthy);
+        return healthy;
+    }
+
+    public List<RadioBrowserMirror> mirrors() {
+        return mirrors;
+    }
+
+    @Scheduled(
+            initialDelayString = "${radio.browser.probe-initial-delay:PT0S}",
+            fixedDelayString = "${radio.browser.probe-interval:PT30S}"
+    )
+    public void probe() {
+        for (var mirror : mirrors) {
+            long start = System.nanoTime();
+            try {
+                mirror.client(RadioBrowserRoute.SEARCH).get()
+                        .uri("/json/stats")
+                        .retrieve()
+                        .toBodilessEntity();
+                mirror.recordSuccess(System.nanoTime() - start);
+            } catch (Exception e) {
+                mirror.recordFailure();
+                log.debug("Radio Browser mirror {} probe failed: {}", mirror.name(), e.getMessage());
+            }
+        }
+    }
+}
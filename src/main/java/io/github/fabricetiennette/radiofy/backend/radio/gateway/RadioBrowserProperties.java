@@ -0,0 +1,93 @@
+package io.github.fabricetiennette.radiofy.backend.radio.gateway;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "radio.browser")
+public class RadioBrowserProperties {
+
+    /** Base URLs of the Radio Browser mirrors (a local stub URL works too, e.g. in tests). */
+    @NotEmpty
+    private List<String> mirrors = new ArrayList<>(List.of(
+            "https://de1.api.radio-browser.info",
+            "https://de2.api.radio-browser.info",
+            "https://fi1.api.radio-browser.info"
+    ));
+
+    /** Consecutive failures after which a mirror is taken out of rotation. */
+    @Min(1)
+    private int failureThreshold = 3;
+
+    /** How long an unhealthy mirror stays out of rotation before it is tried again. */
+    @NotNull
+    private Duration failureCooldown = Duration.ofSeconds(30);
+
+    /** If set, a request still running after this delay is also sent to the next mirror. */
+    private Duration hedgeDelay;
+
+    @Valid
+    private Http http = new Http();
+
+    @Getter
+    @Setter
+    public static class Http {
+
+        /** Pooled keep-alive connections, shared by all mirrors. */
+        @Min(1)
+        private int maxConnections = 50;
+
+        /** How long a request may wait for a free pooled connection. */
+        @NotNull
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /** Idle pooled connections are closed after this delay. */
+        @NotNull
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /** Negotiate HTTP/2 (ALPN) when the mirror supports it, HTTP/1.1 otherwise. */
+        private boolean http2 = true;
+
+        /** Ask for gzip and decode it transparently. */
+        private boolean compression = true;
+
+        @Valid
+        private Timeouts search = new Timeouts(Duration.ofSeconds(2), Duration.ofSeconds(3), Duration.ofSeconds(5));
+
+        @Valid
+        private Timeouts catalog = new Timeouts(Duration.ofSeconds(2), Duration.ofSeconds(60), Duration.ofMinutes(2));
+
+        public Timeouts timeouts(RadioBrowserRoute route) {
+            return route == RadioBrowserRoute.CATALOG ? catalog : search;
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Timeouts {
+        @NotNull
+        private Duration connect;
+        /** Max wait for the response (headers) once the request is sent. */
+        @NotNull
+        private Duration read;
+        /** Hard cap on the whole exchange, body included. */
+        @NotNull
+        private Duration total;
+    }
+}
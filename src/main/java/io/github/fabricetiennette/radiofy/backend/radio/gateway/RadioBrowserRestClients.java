@@ -0,0 +1,73 @@
+package io.github.fabricetiennette.radiofy.backend.radio.gateway;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Outbound HTTP stack for Radio Browser.
+ * <p>
+ * A single Reactor Netty client backs every mirror: bounded keep-alive pool, HTTP/2 when
+ * negotiated, gzip decoding. Each route gets its own request factory so that connect/read/total
+ * timeouts differ between interactive searches and bulk downloads while sharing the pool.
+ * Pool and request timing meters are published as {@code reactor.netty.*}.
+ */
+@Component
+public class RadioBrowserRestClients {
+
+    private final RestClient.Builder restClientBuilder;
+    private final RadioBrowserProperties.Http props;
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient httpClient;
+
+    public RadioBrowserRestClients(RestClient.Builder restClientBuilder, RadioBrowserProperties props) {
+        this.restClientBuilder = restClientBuilder;
+        this.props = props.getHttp();
+
+        this.connectionProvider = ConnectionProvider.builder("radio-browser")
+                .maxConnections(this.props.getMaxConnections())
+                .pendingAcquireTimeout(this.props.getPendingAcquireTimeout())
+                .maxIdleTime(this.props.getMaxIdleTime())
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+
+        var client = HttpClient.create(connectionProvider)
+                .compress(this.props.isCompression())
+                .metrics(true, RadioBrowserRestClients::uriTag);
+        this.httpClient = this.props.isHttp2()
+                ? client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                : client.protocol(HttpProtocol.HTTP11);
+    }
+
+    public RestClient create(String baseUrl, RadioBrowserRoute route) {
+        var timeouts = props.timeouts(route);
+        var requestFactory = new ReactorClientHttpRequestFactory(
+                httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeouts.getConnect().toMillis()));
+        requestFactory.setReadTimeout(timeouts.getRead());
+        requestFactory.setExchangeTimeout(timeouts.getTotal());
+
+        return restClientBuilder.clone()
+                .requestFactory(requestFactory)
+                .baseUrl(baseUrl)
+                .build();
+    }
+
+    @PreDestroy
+    void close() {
+        connectionProvider.dispose();
+    }
+
+    /** Path only: query strings would blow up the meter cardinality. */
+    private static String uriTag(String uri) {
+        int q = uri.indexOf('?');
+        return q < 0 ? uri : uri.substring(0, q);
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.fabricetiennette.radiofy.backend.radio.gateway;
+
+/**
+ * Kinds of upstream calls, each with its own timeouts.
+ */
+public enum RadioBrowserRoute {
+    /** Interactive lookups on the request path: short timeouts, hedging allowed. */
+    SEARCH,
+    /** Bulk downloads (catalog refresh): long read, never hedged. */
+    CATALOG
+}
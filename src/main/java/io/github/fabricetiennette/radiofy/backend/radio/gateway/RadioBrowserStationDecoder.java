@@ -0,0 +1,153 @@
+package io.github.fabricetiennette.radiofy.backend.radio.gateway;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.mapper.RadioStationMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streaming decoder for Radio Browser station arrays.
+ * <p>
+ * Reads the body token by token and builds the target record directly: no intermediate list,
+ * and the fields we do not use are skipped without being materialized. Country and language
+ * are pooled without allocating a String when already known.
+ * {@link #decode} produces the same result as {@link RadioStationMapper#toRadiofyDto}.
+ */
+public final class RadioBrowserStationDecoder {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private RadioBrowserStationDecoder() {}
+
+    /** API-facing stations, for search results and the in-memory catalog. */
+    public static List<RadiofyStationDto> decode(InputStream body, int expectedSize) throws IOException {
+        return decode(body, expectedSize, StationFields::toRadiofyDto);
+    }
+
+    /** Upstream records with sync metadata (codec, popularity, last change), for the database catalog. */
+    public static List<RadioBrowserStationDto> decodeUpstream(InputStream body, int expectedSize) throws IOException {
+        return decode(body, expectedSize, StationFields::toUpstreamDto);
+    }
+
+    private static <T> List<T> decode(InputStream body, int expectedSize,
+                                      Function<StationFields, T> mapper) throws IOException {
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected a JSON array of stations");
+            }
+
+            var stations = new ArrayList<T>(expectedSize);
+            var fields = new StationFields();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                fields.read(parser);
+                stations.add(mapper.apply(fields));
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new JsonParseException(parser, "Expected a station object, got " + token);
+            }
+            return stations;
+        }
+    }
+
+    /** Reusable holder for the fields of the station being read. */
+    private static final class StationFields {
+        String id;
+        String name;
+        String streamUrl;
+        String imageUrl;
+        String country;
+        String countryCode;
+        String language;
+        String tags;
+        String codec;
+        int bitrate;
+        int votes;
+        int clickCount;
+        String lastChange;
+
+        void read(JsonParser parser) throws IOException {
+            id = name = streamUrl = imageUrl = country = countryCode = language = tags = codec = lastChange = null;
+            bitrate = votes = clickCount = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "stationuuid" -> id = text(parser, value);
+                    case "name" -> name = text(parser, value);
+                    case "url_resolved" -> streamUrl = text(parser, value);
+                    case "favicon" -> imageUrl = text(parser, value);
+                    case "country" -> country = pooledText(parser, value);
+                    case "countrycode" -> countryCode = pooledText(parser, value);
+                    case "language" -> language = pooledText(parser, value);
+                    case "tags" -> tags = text(parser, value);
+                    case "codec" -> codec = pooledText(parser, value);
+                    case "bitrate" -> bitrate = number(parser, value);
+                    case "votes" -> votes = number(parser, value);
+                    case "clickcount" -> clickCount = number(parser, value);
+                    case "lastchangetime_iso8601" -> lastChange = text(parser, value);
+                    default -> parser.skipChildren(); // no-op for scalars
+                }
+            }
+        }
+
+        RadiofyStationDto toRadiofyDto() {
+            return new RadiofyStationDto(
+                    id,
+                    name == null ? "" : name.trim(),
+                    streamUrl,
+                    imageUrl,
+                    country,
+                    countryCode,
+                    language,
+                    RadioStationMapper.parseTags(tags),
+                    codec
+            );
+        }
+
+        RadioBrowserStationDto toUpstreamDto() {
+            return new RadioBrowserStationDto(
+                    id, name, streamUrl, imageUrl, country, countryCode, language, tags,
+                    codec, bitrate, votes, clickCount, lastChange
+            );
+        }
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    /** Low-cardinality values: looked up in the pool straight from the parser buffer. */
+    private static String pooledText(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.VALUE_STRING) {
+            return RadioStationMapper.canonical(text(parser, value));
+        }
+        int offset = parser.getTextOffset();
+        return RadioStationMapper.canonical(parser.getTextCharacters(), offset, offset + parser.getTextLength());
+    }
+
+    private static int number(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isStructStart()) {
+            parser.skipChildren();
+            return 0;
+        }
+        return parser.getValueAsInt(0);
+    }
+}
@@ -3,31 +3,119 @@ package io.github.fabricetiennette.radiofy.backend.radio.mapper;
 import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
 import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 
 public final class RadioStationMapper {
 
+    /**
+     * Tags, countries and languages repeat across thousands of stations ("pop", "news", "France"...):
+     * every station shares the same canonical instances instead of holding its own copies.
+     */
+    private static final StringPool VALUES = new StringPool(32_768);
+
     private RadioStationMapper() {}
 
     public static RadiofyStationDto toRadiofyDto(RadioBrowserStationDto s) {
-        var tags = (s.tags() == null || s.tags().isBlank())
-                ? List.<String>of()
-                : List.of(s.tags().split(","));
-
-        var cleanedTags = tags.stream()
-                .map(String::trim)
-                .filter(t -> !t.isEmpty())
-                .toList();
-
         return new RadiofyStationDto(
                 s.stationuuid(),
                 s.name() == null ? "" : s.name().trim(),
                 s.url_resolved(),
                 s.favicon(),
-                s.country(),
-                s.language(),
-                cleanedTags
+                canonical(s.country()),
+                canonical(s.countrycode()),
+                canonical(s.language()),
+                parseTags(s.tags()),
+                canonical(s.codec())
         );
     }
+
+    /** Upstream last change time, null if missing or malformed. */
+    public static Instant lastChangeAt(RadioBrowserStationDto s) {
+        var raw = s.lastchangetime_iso8601();
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(raw);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /** Pooled instance of a repeated value (country, language...). */
+    public static String canonical(String value) {
+        return VALUES.intern(value);
+    }
+
+    /** Pooled instance of {@code new String(chars, from, to - from)}, no allocation on a hit. */
+    public static String canonical(char[] chars, int from, int to) {
+        return VALUES.intern(chars, from, to);
+    }
+
+    /**
+     * Splits a comma separated tag string ("pop, rock,,news ") into trimmed, non-empty, pooled tags.
+     * Scans the string in place: no regex, no split array, no stream, no substring for known tags.
+     */
+    public static List<String> parseTags(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return List.of();
+        }
+
+        int len = raw.length();
+        String first = null;
+        String second = null;
+        String[] more = null;
+        int count = 0;
+
+        int start = 0;
+        while (start <= len) {
+            int end = raw.indexOf(',', start);
+            if (end < 0) end = len;
+
+            // same trimming rule as String.trim()
+            int from = start;
+            int to = end;
+            while (from < to && raw.charAt(from) <= ' ') from++;
+            while (to > from && raw.charAt(to - 1) <= ' ') to--;
+
+            if (from < to) {
+                String tag = VALUES.intern(raw, from, to);
+                if (count == 0) {
+                    first = tag;
+                } else if (count == 1) {
+                    second = tag;
+                } else {
+                    if (more == null) more = new String[countCommas(raw, end) + 1];
+                    more[count - 2] = tag;
+                }
+                count++;
+            }
+            start = end + 1;
+        }
+
+        return switch (count) {
+            case 0 -> List.of();
+            case 1 -> List.of(first);
+            case 2 -> List.of(first, second);
+            default -> {
+                var all = new String[count];
+                all[0] = first;
+                all[1] = second;
+                System.arraycopy(more, 0, all, 2, count - 2);
+                yield List.of(all);
+            }
+        };
+    }
+
+    /** Commas at or after {@code from}: an upper bound of the tags still to come. */
+    private static int countCommas(String raw, int from) {
+        int n = 0;
+        for (int i = from; i < raw.length(); i++) {
+            if (raw.charAt(i) == ',') n++;
+        }
+        return n;
+    }
 }
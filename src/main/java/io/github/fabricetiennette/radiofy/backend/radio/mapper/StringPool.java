@@ -0,0 +1,104 @@
+package io.github.fabricetiennette.radiofy.backend.radio.mapper;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, thread-safe pool of canonical strings (tags, country and language names).
+ * <p>
+ * Lookups take a char range, so a hit returns the pooled instance without allocating.
+ * The pool never evicts: once {@code capacity} entries are stored, unseen values are simply
+ * returned as fresh strings. Long values are never pooled.
+ */
+public final class StringPool {
+
+    private static final int MAX_LENGTH = 64;
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public StringPool(int capacity) {
+        // open addressing, kept at most half full
+        int slots = Integer.highestOneBit(Math.max(capacity, 8) * 4 - 1);
+        this.table = new AtomicReferenceArray<>(slots);
+        this.mask = slots - 1;
+        this.capacity = capacity;
+    }
+
+    public String intern(String s) {
+        return s == null ? null : intern(s, 0, s.length());
+    }
+
+    /** Canonical instance of {@code s.substring(from, to)}. */
+    public String intern(String s, int from, int to) {
+        int len = to - from;
+        if (len == 0) return "";
+        if (len > MAX_LENGTH) return s.substring(from, to);
+
+        int hash = 0;
+        for (int i = from; i < to; i++) hash = 31 * hash + s.charAt(i);
+
+        int slot = spread(hash) & mask;
+        while (true) {
+            String existing = table.get(slot);
+            if (existing == null) {
+                String fresh = s.substring(from, to);
+                if (size.get() >= capacity) return fresh;
+                if (table.compareAndSet(slot, null, fresh)) {
+                    size.incrementAndGet();
+                    return fresh;
+                }
+                continue; // lost a race on this slot: look at it again
+            }
+            if (existing.length() == len && existing.regionMatches(0, s, from, len)) {
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /** Canonical instance of {@code new String(chars, from, to - from)}. */
+    public String intern(char[] chars, int from, int to) {
+        int len = to - from;
+        if (len == 0) return "";
+        if (len > MAX_LENGTH) return new String(chars, from, len);
+
+        int hash = 0;
+        for (int i = from; i < to; i++) hash = 31 * hash + chars[i];
+
+        int slot = spread(hash) & mask;
+        while (true) {
+            String existing = table.get(slot);
+            if (existing == null) {
+                String fresh = new String(chars, from, len);
+                if (size.get() >= capacity) return fresh;
+                if (table.compareAndSet(slot, null, fresh)) {
+                    size.incrementAndGet();
+                    return fresh;
+                }
+                continue;
+            }
+            if (existing.length() == len && regionEquals(existing, chars, from)) {
+                return existing;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private static boolean regionEquals(String s, char[] chars, int from) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != chars[from + i]) return false;
+        }
+        return true;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.fabricetiennette.radiofy.backend.radio.repositories;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.mapper.RadioStationMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Local copy of the Radio Browser catalog ({@code stations} table).
+ * <p>
+ * Plain JDBC rather than JPA: the sync writes tens of thousands of rows with batched
+ * {@code insert ... on conflict} statements. Searches live in {@link StationSearchRepository}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StationRepository {
+
+    private static final String UPSERT = """
+            insert into stations (station_uuid, name, stream_url, image_url, country, country_code, language,
+                                  tags, codec, bitrate, votes, click_count, last_change_at, synced_at, deleted_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, null)
+            on conflict (station_uuid) do update
+               set name           = excluded.name,
+                   stream_url     = excluded.stream_url,
+                   image_url      = excluded.image_url,
+                   country        = excluded.country,
+                   country_code   = excluded.country_code,
+                   language       = excluded.language,
+                   tags           = excluded.tags,
+                   codec          = excluded.codec,
+                   bitrate        = excluded.bitrate,
+                   votes          = excluded.votes,
+                   click_count    = excluded.click_count,
+                   last_change_at = excluded.last_change_at,
+                   synced_at      = excluded.synced_at,
+                   deleted_at     = null
+            """;
+
+    /** Incremental mode: rows that did not change upstream are left untouched (no dead tuple, no WAL). */
+    private static final String UPSERT_CHANGED = UPSERT + """
+             where stations.last_change_at is distinct from excluded.last_change_at
+                or stations.deleted_at is not null
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Batched upsert. With {@code onlyChanged}, existing rows are rewritten only when their
+     * upstream last change time differs (or they were marked deleted).
+     * Returns the number of rows inserted or updated.
+     */
+    @Transactional
+    public int upsert(List<RadioBrowserStationDto> stations, Instant syncedAt, boolean onlyChanged, int batchSize) {
+        var syncedAtTs = Timestamp.from(syncedAt);
+        int[][] counts = jdbcTemplate.batchUpdate(onlyChanged ? UPSERT_CHANGED : UPSERT, stations, batchSize,
+                (ps, s) -> bind(ps, s, syncedAtTs));
+
+        int written = 0;
+        for (int[] batch : counts) {
+            for (int n : batch) {
+                // the driver may report SUCCESS_NO_INFO (-2) for batched statements
+                written += n == PreparedStatement.SUCCESS_NO_INFO ? 1 : n;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * After a full sync: stations that were not part of it are gone upstream (or broken).
+     */
+    @Transactional
+    public int markMissingDeleted(Instant syncStartedAt, Instant now) {
+        return jdbcTemplate.update("""
+                update stations
+                   set deleted_at = ?
+                 where synced_at < ?
+                   and deleted_at is null
+                """, Timestamp.from(now), Timestamp.from(syncStartedAt));
+    }
+
+    public StationSyncState findSyncState() {
+        var states = jdbcTemplate.query("""
+                select last_change_at, last_full_sync_at
+                  from station_sync_state
+                 where id = 1
+                """, (rs, rowNum) -> new StationSyncState(
+                toInstant(rs.getTimestamp("last_change_at")),
+                toInstant(rs.getTimestamp("last_full_sync_at"))));
+        return states.isEmpty() ? StationSyncState.NEVER_SYNCED : states.get(0);
+    }
+
+    @Transactional
+    public void saveSyncState(StationSyncState state) {
+        jdbcTemplate.update("""
+                insert into station_sync_state (id, last_change_at, last_full_sync_at, updated_at)
+                values (1, ?, ?, now())
+                on conflict (id) do update
+                   set last_change_at    = excluded.last_change_at,
+                       last_full_sync_at = excluded.last_full_sync_at,
+                       updated_at        = excluded.updated_at
+                """, toTimestamp(state.lastChangeAt()), toTimestamp(state.lastFullSyncAt()));
+    }
+
+    private static void bind(PreparedStatement ps, RadioBrowserStationDto s, Timestamp syncedAt) throws SQLException {
+        var tags = RadioStationMapper.parseTags(s.tags());
+        ps.setString(1, s.stationuuid());
+        ps.setString(2, s.name() == null ? "" : s.name().trim());
+        ps.setString(3, s.url_resolved());
+        ps.setString(4, s.favicon());
+        ps.setString(5, s.country());
+        ps.setString(6, s.countrycode());
+        ps.setString(7, s.language());
+        ps.setArray(8, ps.getConnection().createArrayOf("text", tags.toArray()));
+        ps.setString(9, s.codec());
+        ps.setInt(10, s.bitrate());
+        ps.setInt(11, s.votes());
+        ps.setInt(12, s.clickcount());
+        ps.setTimestamp(13, toTimestamp(RadioStationMapper.lastChangeAt(s)));
+        ps.setTimestamp(14, syncedAt);
+    }
+
+    private static Instant toInstant(Timestamp ts) {
+        return ts == null ? null : ts.toInstant();
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant == null ? null : Timestamp.from(instant);
+    }
+}
@@ -0,0 +1,195 @@
+package io.github.fabricetiennette.radiofy.backend.radio.repositories;
+
+import io.github.fabricetiennette.radiofy.backend.radio.catalog.StationIndex;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.mapper.RadioStationMapper;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCursor;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchPage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked search over the local {@code stations} table (indexes of V10 and V14).
+ * <p>
+ * A query matches through the full-text vector (every word as a prefix, on name, tags,
+ * country and language) or through trigram word similarity on the accent-folded name,
+ * which absorbs typos ("jaz radoi" finds "Jazz Radio").
+ * Without a query, filtered stations are listed by popularity.
+ * Filters (country, language, tag, codec) are exact, case-insensitive matches.
+ * <p>
+ * Results are ordered by (score, station_uuid) and paged by keyset: the next page starts
+ * after the last row of the previous one. Without a query the score is the raw
+ * {@code click_count}, so a page is a range scan of the popularity index (V14) and
+ * page 100 costs the same as page 1.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StationSearchRepository {
+
+    private static final String COLUMNS =
+            "s.station_uuid, s.name, s.stream_url, s.image_url, s.country, s.country_code, s.language, s.tags, s.codec";
+
+    /** Text relevance (full-text rank + name similarity) plus a small popularity boost. */
+    private static final String TEXT_SCORE = """
+            round((ts_rank_cd(s.search_vector, to_tsquery('simple', :tsquery))
+                   + word_similarity(lower(unaccent(:term)), s.search_name)
+                   + ln(s.click_count + 1) / 20)::numeric, 6)""";
+
+    private static final String TEXT_MATCH = """
+            (s.search_vector @@ to_tsquery('simple', :tsquery)
+                 or lower(unaccent(:term)) <% s.search_name)""";
+
+    private static final RowMapper<Hit> HIT_ROW = (rs, rowNum) -> new Hit(
+            new RadiofyStationDto(
+                    rs.getString("station_uuid"),
+                    rs.getString("name"),
+                    rs.getString("stream_url"),
+                    rs.getString("image_url"),
+                    RadioStationMapper.canonical(rs.getString("country")),
+                    RadioStationMapper.canonical(rs.getString("country_code")),
+                    RadioStationMapper.canonical(rs.getString("language")),
+                    toTags(rs.getArray("tags")),
+                    RadioStationMapper.canonical(rs.getString("codec"))
+            ),
+            rs.getBigDecimal("score")
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns up to {@code limit} stations after {@code after} (first page if null).
+     */
+    public StationSearchPage search(StationSearchCriteria criteria, StationSearchCursor after, int limit) {
+        var params = new MapSqlParameterSource("limit", limit + 1);
+        var where = new StringBuilder("s.deleted_at is null");
+        String score = null;
+
+        if (criteria.hasQuery()) {
+            var tokens = StationIndex.tokenize(criteria.q());
+            if (tokens.isEmpty()) {
+                return StationSearchPage.EMPTY;
+            }
+            // tokens only hold letters and digits: safe to_tsquery syntax
+            params.addValue("tsquery", tokens.stream().map(t -> t + ":*").collect(Collectors.joining(" & ")));
+            params.addValue("term", criteria.q());
+            where.append(" and ").append(TEXT_MATCH);
+            score = TEXT_SCORE;
+        }
+
+        if (criteria.country() != null) {
+            where.append(" and (s.country_code = upper(:country) or lower(s.country) = lower(:country))");
+            params.addValue("country", criteria.country());
+        }
+        if (criteria.language() != null) {
+            where.append(" and lower(:language) = any(regexp_split_to_array(lower(s.language), '\\s*,\\s*'))");
+            params.addValue("language", criteria.language());
+        }
+        if (criteria.tag() != null) {
+            where.append(" and s.tags @> array[lower(:tag)]::text[]");
+            params.addValue("tag", criteria.tag());
+        }
+        if (criteria.codec() != null) {
+            where.append(" and upper(s.codec) = upper(:codec)");
+            params.addValue("codec", criteria.codec());
+        }
+
+        if (!criteria.hasQuery()) {
+            // compared on the column itself: (click_count desc, station_uuid desc) index range scan
+            if (after != null) {
+                where.append(" and (s.click_count, s.station_uuid) < (:afterScore, :afterUuid)");
+                params.addValue("afterScore", after.score().longValue());
+                params.addValue("afterUuid", after.stationUuid());
+            }
+            var sql = """
+                    select %s, s.click_count as score
+                      from stations s
+                     where %s
+                     order by s.click_count desc, s.station_uuid desc
+                     limit :limit
+                    """.formatted(COLUMNS, where);
+            return toPage(jdbcTemplate.query(sql, params, HIT_ROW), limit);
+        }
+
+        var keyset = "";
+        if (after != null) {
+            keyset = "where (m.score, m.station_uuid) < (:afterScore, :afterUuid)";
+            params.addValue("afterScore", after.score());
+            params.addValue("afterUuid", after.stationUuid());
+        }
+
+        var sql = """
+                select *
+                  from (select %s, %s as score
+                          from stations s
+                         where %s) m
+                 %s
+                 order by m.score desc, m.station_uuid desc
+                 limit :limit
+                """.formatted(COLUMNS, score, where, keyset);
+
+        var hits = jdbcTemplate.query(sql, params, HIT_ROW);
+        return toPage(hits, limit);
+    }
+
+    /** Active stations among {@code ids}, by id; unknown or deleted ids are left out. */
+    public Map<String, RadiofyStationDto> findAll(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        var sql = """
+                select %s, 0 as score
+                  from stations s
+                 where s.station_uuid in (:ids)
+                   and s.deleted_at is null
+                """.formatted(COLUMNS);
+        Map<String, RadiofyStationDto> found = HashMap.newHashMap(ids.size());
+        for (var hit : jdbcTemplate.query(sql, new MapSqlParameterSource("ids", ids), HIT_ROW)) {
+            found.put(hit.station().id(), hit.station());
+        }
+        return found;
+    }
+
+    private static StationSearchPage toPage(List<Hit> hits, int limit) {
+        if (hits.isEmpty()) {
+            return StationSearchPage.EMPTY;
+        }
+        boolean hasMore = hits.size() > limit;
+        var page = hasMore ? hits.subList(0, limit) : hits;
+
+        var stations = new ArrayList<RadiofyStationDto>(page.size());
+        for (var hit : page) {
+            stations.add(hit.station());
+        }
+        StationSearchCursor next = null;
+        if (hasMore) {
+            var last = page.get(page.size() - 1);
+            next = new StationSearchCursor(StationSearchCursor.Source.DATABASE, last.score(), last.station().id());
+        }
+        return new StationSearchPage(List.copyOf(stations), next);
+    }
+
+    private static List<String> toTags(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        var values = (String[]) array.getArray();
+        return Arrays.stream(values).map(RadioStationMapper::canonical).toList();
+    }
+
+    private record Hit(RadiofyStationDto station, BigDecimal score) { }
+}
@@ -0,0 +1,12 @@
+package io.github.fabricetiennette.radiofy.backend.radio.repositories;
+
+import java.time.Instant;
+
+/**
+ * Sync bookkeeping: high-water mark of the applied upstream changes and time of the last full sync.
+ * Both are null until the first full sync.
+ */
+public record StationSyncState(Instant lastChangeAt, Instant lastFullSyncAt) {
+
+    public static final StationSyncState NEVER_SYNCED = new StationSyncState(null, null);
+}
@@ -0,0 +1,12 @@
+package io.github.fabricetiennette.radiofy.backend.radio.search;
+
+/**
+ * The continuation token is malformed, belongs to another search, or can no longer be resumed.
+ * Clients restart from the first page.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
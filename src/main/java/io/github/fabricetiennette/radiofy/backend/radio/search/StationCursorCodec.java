@@ -0,0 +1,67 @@
+package io.github.fabricetiennette.radiofy.backend.radio.search;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque continuation tokens for station searches.
+ * <p>
+ * A token carries the cursor plus a fingerprint of the criteria it was issued for, so it
+ * cannot be replayed against another search. Clients must treat it as an opaque string.
+ */
+public final class StationCursorCodec {
+
+    private static final String VERSION = "1";
+
+    private StationCursorCodec() {}
+
+    public static String encode(StationSearchCursor cursor, StationSearchCriteria criteria) {
+        var raw = String.join("|",
+                VERSION,
+                cursor.source().name(),
+                cursor.score().toPlainString(),
+                fingerprint(criteria),
+                cursor.stationUuid() == null ? "" : cursor.stationUuid());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a missing token (first page).
+     *
+     * @throws InvalidCursorException if the token is malformed or was issued for other criteria
+     */
+    public static StationSearchCursor decode(String token, StationSearchCriteria criteria) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token.strip()), StandardCharsets.UTF_8);
+            var parts = raw.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new InvalidCursorException("Unsupported cursor");
+            }
+            if (!fingerprint(criteria).equals(parts[3])) {
+                throw new InvalidCursorException("Cursor does not match the search criteria");
+            }
+            var source = StationSearchCursor.Source.valueOf(parts[1]);
+            var uuid = parts[4].isEmpty() ? null : parts[4];
+            if (uuid == null && source != StationSearchCursor.Source.REMOTE) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            var cursor = new StationSearchCursor(source, new BigDecimal(parts[2]), uuid);
+            if (source == StationSearchCursor.Source.REMOTE && cursor.offset() < 0) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return cursor;
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            // bad base64, unknown source, bad number, non-integer offset
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    private static String fingerprint(StationSearchCriteria c) {
+        return Integer.toHexString(Objects.hash(c.q(), c.country(), c.language(), c.tag(), c.codec()));
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.fabricetiennette.radiofy.backend.radio.search;
+
+/**
+ * Free text query plus optional exact-match filters. Blank values mean "no constraint".
+ *
+ * @param q        station name, tags, country or language words (typos tolerated on the name)
+ * @param country  ISO 3166 code ("FR") or country name ("France")
+ * @param language one of the station languages ("french")
+ * @param tag      one of the station tags ("jazz")
+ * @param codec    stream codec ("MP3", "AAC")
+ */
+public record StationSearchCriteria(String q, String country, String language, String tag, String codec) {
+
+    public StationSearchCriteria {
+        q = blankToNull(q);
+        country = blankToNull(country);
+        language = blankToNull(language);
+        tag = blankToNull(tag);
+        codec = blankToNull(codec);
+    }
+
+    public static StationSearchCriteria of(String q) {
+        return new StationSearchCriteria(q, null, null, null, null);
+    }
+
+    public boolean hasQuery() {
+        return q != null;
+    }
+
+    public boolean hasFilters() {
+        return country != null || language != null || tag != null || codec != null;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.fabricetiennette.radiofy.backend.radio.search;
+
+import java.math.BigDecimal;
+
+/**
+ * Position after the last station of a page, tied to the source that produced it.
+ * <p>
+ * Local sources page by keyset: {@code score} and {@code stationUuid} are the sort key of the
+ * last station, and the next page starts strictly after it, whatever its depth.
+ * The remote API only pages by offset: {@code score} then holds the number of stations
+ * already returned and {@code stationUuid} is null.
+ */
+public record StationSearchCursor(Source source, BigDecimal score, String stationUuid) {
+
+    public enum Source { MEMORY, DATABASE, REMOTE }
+
+    public static StationSearchCursor offset(int offset) {
+        return new StationSearchCursor(Source.REMOTE, BigDecimal.valueOf(offset), null);
+    }
+
+    public int offset() {
+        return score.intValueExact();
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.fabricetiennette.radiofy.backend.radio.search;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+
+import java.util.List;
+
+/**
+ * One page of results; {@code next} is null on the last page.
+ */
+public record StationSearchPage(List<RadiofyStationDto> stations, StationSearchCursor next) {
+
+    public static final StationSearchPage EMPTY = new StationSearchPage(List.of(), null);
+}
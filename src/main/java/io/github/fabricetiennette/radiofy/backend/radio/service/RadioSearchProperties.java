@@ -0,0 +1,27 @@
+package io.github.fabricetiennette.radiofy.backend.radio.service;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "radio.search")
+public class RadioSearchProperties {
+
+    /** Where searches are served from. The remote API stays the fallback while the source is not loaded. */
+    @NotNull
+    private Backend backend = Backend.MEMORY;
+
+    public enum Backend {
+        /** In-memory catalog ({@code StationCatalog}). */
+        MEMORY,
+        /** Local {@code stations} table (full-text + trigram ranking), kept up to date by the catalog sync. */
+        DATABASE,
+        /** Radio Browser API on every (uncached) search. */
+        REMOTE
+    }
+}
@@ -1,27 +1,203 @@
 package io.github.fabricetiennette.radiofy.backend.radio.service;
 
+import io.github.fabricetiennette.radiofy.backend.radio.cache.StationLookupCache;
+import io.github.fabricetiennette.radiofy.backend.radio.cache.StationSearchCache;
+import io.github.fabricetiennette.radiofy.backend.radio.catalog.StationCatalog;
 import io.github.fabricetiennette.radiofy.backend.radio.gateway.RadioBrowserGateway;
-import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
 import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
-import io.github.fabricetiennette.radiofy.backend.radio.mapper.RadioStationMapper;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationSearchRepository;
+import io.github.fabricetiennette.radiofy.backend.radio.search.InvalidCursorException;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCursor;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchPage;
+import io.github.fabricetiennette.radiofy.backend.radio.sync.StationCatalogSynchronizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+@Slf4j
 @Service
 public class RadioService {
+
+    /** Same cap as spring.data.web.pageable.max-page-size. */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /** Max ids per lookup, which also keeps the upstream byuuid URL reasonably short. */
+    public static final int MAX_LOOKUP_SIZE = 100;
+
     private final RadioBrowserGateway radioBrowserGateway;
+    private final StationCatalog stationCatalog;
+    private final StationSearchCache searchCache;
+    private final StationLookupCache lookupCache;
+    private final StationSearchRepository stationSearchRepository;
+    private final StationCatalogSynchronizer catalogSynchronizer;
+    private final RadioSearchProperties searchProperties;
+    private final SingleFlight<String, List<RadiofyStationDto>> remoteSearches = new SingleFlight<>();
 
-    public RadioService(RadioBrowserGateway radioBrowserGateway) {
+    public RadioService(RadioBrowserGateway radioBrowserGateway,
+                        StationCatalog stationCatalog,
+                        StationSearchCache searchCache,
+                        StationLookupCache lookupCache,
+                        StationSearchRepository stationSearchRepository,
+                        StationCatalogSynchronizer catalogSynchronizer,
+                        RadioSearchProperties searchProperties) {
         this.radioBrowserGateway = radioBrowserGateway;
+        this.stationCatalog = stationCatalog;
+        this.searchCache = searchCache;
+        this.lookupCache = lookupCache;
+        this.stationSearchRepository = stationSearchRepository;
+        this.catalogSynchronizer = catalogSynchronizer;
+        this.searchProperties = searchProperties;
+    }
+
+    /**
+     * One page of results after {@code after} (first page if null).
+     * <p>
+     * Served locally once the configured source is loaded, the remote API being the fallback.
+     * A cursor is only resumed by the source that issued it: a local cursor that can no longer
+     * be served locally is rejected, and a remote (offset) cursor keeps paging remotely.
+     */
+    public StationSearchPage searchStations(StationSearchCriteria criteria, StationSearchCursor after, int limit) {
+        int safeLimit = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        var resumed = after == null ? null : after.source();
+
+        if (resumed != StationSearchCursor.Source.REMOTE) {
+            switch (searchProperties.getBackend()) {
+                case MEMORY -> {
+                    if (stationCatalog.isReady() && (resumed == null || resumed == StationSearchCursor.Source.MEMORY)) {
+                        return stationCatalog.search(criteria, after, safeLimit);
+                    }
+                }
+                case DATABASE -> {
+                    if (catalogSynchronizer.isReady() && (resumed == null || resumed == StationSearchCursor.Source.DATABASE)) {
+                        try {
+                            return stationSearchRepository.search(criteria, after, safeLimit);
+                        } catch (DataAccessException e) {
+                            if (after != null) {
+                                throw e;
+                            }
+                            log.warn("Station search on the database failed, falling back to Radio Browser", e);
+                        }
+                    }
+                }
+                case REMOTE -> { }
+            }
+            if (after != null) {
+                throw new InvalidCursorException("Search results changed, restart from the first page");
+            }
+        }
+
+        return searchRemote(criteria, after == null ? 0 : after.offset(), safeLimit);
+    }
+
+    /**
+     * Stations for {@code ids}, in request order (duplicates and unknown ids left out).
+     */
+    public List<RadiofyStationDto> lookupStations(Collection<String> ids) {
+        var unique = new LinkedHashSet<String>(ids.size());
+        for (var id : ids) {
+            unique.add(id.strip());
+        }
+        var found = findStations(unique);
+        var stations = new ArrayList<RadiofyStationDto>(found.size());
+        for (var id : unique) {
+            var station = found.get(id);
+            if (station != null) {
+                stations.add(station);
+            }
+        }
+        return stations;
     }
 
-    public List<RadiofyStationDto> searchStations(String q, int limit) {
-        int safeLimit = Math.min(Math.max(limit, 1), 50);
+    /**
+     * Station metadata for {@code ids}, by id.
+     * <p>
+     * Resolved from the local catalog (memory or database, whichever is loaded), then from the
+     * lookup cache; whatever is still missing is fetched from Radio Browser in a single request.
+     * If that request fails, the stations found so far are returned.
+     */
+    public Map<String, RadiofyStationDto> findStations(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, RadiofyStationDto> found = new HashMap<>(findLocalStations(ids));
+        if (found.size() == ids.size()) {
+            return found;
+        }
+
+        var missing = new ArrayList<String>(ids.size() - found.size());
+        for (var id : ids) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        try {
+            found.putAll(lookupCache.getAll(missing, this::fetchRemoteStations));
+        } catch (RuntimeException e) {
+            log.warn("Station lookup on Radio Browser failed for {} ids", missing.size(), e);
+        }
+        return found;
+    }
+
+    private Map<String, RadiofyStationDto> findLocalStations(Collection<String> ids) {
+        if (stationCatalog.isReady()) {
+            return stationCatalog.findAll(ids);
+        }
+        if (catalogSynchronizer.isReady()) {
+            try {
+                return stationSearchRepository.findAll(ids);
+            } catch (DataAccessException e) {
+                log.warn("Station lookup on the database failed", e);
+            }
+        }
+        return Map.of();
+    }
+
+    /**
+     * Misses are fetched in chunks of {@link #MAX_LOOKUP_SIZE}, i.e. one request for any
+     * lookup coming from the API.
+     */
+    private List<RadiofyStationDto> fetchRemoteStations(Set<? extends String> ids) {
+        var pending = List.copyOf(ids);
+        var stations = new ArrayList<RadiofyStationDto>(pending.size());
+        for (int from = 0; from < pending.size(); from += MAX_LOOKUP_SIZE) {
+            var chunk = pending.subList(from, Math.min(from + MAX_LOOKUP_SIZE, pending.size()));
+            stations.addAll(radioBrowserGateway.findByUuids(chunk));
+        }
+        return stations;
+    }
+
+    /**
+     * Fetches one extra station to know whether there is a next page.
+     * Plain name searches (first page, no filter) go through the search cache.
+     */
+    private StationSearchPage searchRemote(StationSearchCriteria criteria, int offset, int limit) {
+        List<RadiofyStationDto> stations;
+        if (offset == 0 && criteria.hasQuery() && !criteria.hasFilters()) {
+            stations = searchCache.get(criteria.q(), limit + 1, this::searchRemoteByName);
+        } else {
+            var key = criteria + "|" + offset + '|' + (limit + 1);
+            stations = remoteSearches.execute(key, () -> radioBrowserGateway.search(criteria, offset, limit + 1));
+        }
+
+        if (stations.size() <= limit) {
+            return new StationSearchPage(stations, null);
+        }
+        return new StationSearchPage(List.copyOf(stations.subList(0, limit)), StationSearchCursor.offset(offset + limit));
+    }
 
-        return radioBrowserGateway.searchByName(q, safeLimit)
-                .stream()
-                .map(RadioStationMapper::toRadiofyDto)
-                .toList();
+    /**
+     * Identical concurrent searches (same normalized query and limit) share one upstream call.
+     */
+    private List<RadiofyStationDto> searchRemoteByName(String q, int limit) {
+        return remoteSearches.execute(q + '|' + limit, () -> radioBrowserGateway.searchByName(q, limit));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package io.github.fabricetiennette.radiofy.backend.radio.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into a single execution.
+ * <p>
+ * The first caller runs the loader on its own thread; callers arriving while it is
+ * in flight wait for it and receive the same value, or the same exception.
+ * Nothing is kept once the call completes (caching is a separate concern).
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public V execute(K key, Supplier<V> loader) {
+        var mine = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Number of keys currently being loaded. */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /** Callers currently waiting on the in-flight call for {@code key} (estimate, for monitoring). */
+    public int waitingCount(K key) {
+        var future = inFlight.get(key);
+        return future == null ? 0 : future.getNumberOfDependents();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // rethrow the leader's exception as-is
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.fabricetiennette.radiofy.backend.radio.sync;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.gateway.RadioBrowserGateway;
+import io.github.fabricetiennette.radiofy.backend.radio.mapper.RadioStationMapper;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationRepository;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationSyncState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the {@code stations} table in sync with Radio Browser.
+ * <p>
+ * The first run (and then one run per {@code fullSyncInterval}) downloads the whole list,
+ * upserts it and marks the stations that disappeared upstream as deleted.
+ * Runs in between only read the most recently changed stations, page by page, until they
+ * reach the last change already applied, and upsert those.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StationCatalogSynchronizer {
+
+    private final RadioBrowserGateway radioBrowserGateway;
+    private final StationRepository stationRepository;
+    private final StationSyncProperties props;
+
+    private volatile boolean ready;
+
+    /** True once the table holds a complete catalog (a full sync went through). */
+    public boolean isReady() {
+        return props.isEnabled() && ready;
+    }
+
+    @Scheduled(
+            initialDelayString = "${radio.sync.initial-delay:PT10S}",
+            fixedDelayString = "${radio.sync.interval:PT15M}"
+    )
+    public void sync() {
+        if (!props.isEnabled()) {
+            return;
+        }
+        try {
+            var state = stationRepository.findSyncState();
+            ready = state.lastFullSyncAt() != null;
+
+            if (isFullSyncDue(state, Instant.now()) || !incrementalSync(state)) {
+                fullSync();
+            }
+        } catch (Exception e) {
+            log.warn("Station catalog sync failed, will retry on next run", e);
+        }
+    }
+
+    private boolean isFullSyncDue(StationSyncState state, Instant now) {
+        return state.lastFullSyncAt() == null
+                || state.lastChangeAt() == null
+                || !state.lastFullSyncAt().plus(props.getFullSyncInterval()).isAfter(now);
+    }
+
+    private void fullSync() {
+        long start = System.nanoTime();
+        var startedAt = Instant.now();
+
+        var stations = radioBrowserGateway.fetchAllStationRecords().stream()
+                .filter(s -> s.stationuuid() != null)
+                .toList();
+        if (stations.isEmpty()) {
+            // never wipe the table because of an empty answer
+            log.warn("Full station sync returned no stations, keeping the current table");
+            return;
+        }
+
+        int written = stationRepository.upsert(stations, startedAt, false, props.getBatchSize());
+        int deleted = stationRepository.markMissingDeleted(startedAt, Instant.now());
+        stationRepository.saveSyncState(new StationSyncState(newestChange(stations), startedAt));
+        ready = true;
+
+        log.info("Full station sync: {} stations written, {} marked deleted in {} ms",
+                written, deleted, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies the stations changed since the last sync.
+     * Returns false when there are too many of them, a full sync is then cheaper.
+     */
+    private boolean incrementalSync(StationSyncState state) {
+        long start = System.nanoTime();
+        var syncedAt = Instant.now();
+        var watermark = state.lastChangeAt();
+        var newest = watermark;
+        int pageSize = props.getPageSize();
+        int changed = 0;
+        int written = 0;
+
+        for (int page = 0; page < props.getMaxPages(); page++) {
+            var batch = radioBrowserGateway.fetchRecentlyChangedStations(page * pageSize, pageSize);
+            var toApply = new ArrayList<RadioBrowserStationDto>(batch.size());
+            boolean reachedWatermark = false;
+
+            for (var s : batch) {
+                var changedAt = RadioStationMapper.lastChangeAt(s);
+                if (s.stationuuid() == null || changedAt == null) {
+                    continue;
+                }
+                // newest first: once past the watermark, everything below is already applied.
+                // Stations changed exactly at the watermark are re-sent; the upsert skips them.
+                if (changedAt.isBefore(watermark)) {
+                    reachedWatermark = true;
+                    break;
+                }
+                toApply.add(s);
+                if (changedAt.isAfter(newest)) {
+                    newest = changedAt;
+                }
+            }
+
+            if (!toApply.isEmpty()) {
+                written += stationRepository.upsert(toApply, syncedAt, true, props.getBatchSize());
+                changed += toApply.size();
+            }
+
+            if (reachedWatermark || batch.size() < pageSize) {
+                stationRepository.saveSyncState(new StationSyncState(newest, state.lastFullSyncAt()));
+                log.info("Incremental station sync: {} changed since {}, {} rows written in {} ms",
+                        changed, watermark, written, (System.nanoTime() - start) / 1_000_000);
+                return true;
+            }
+        }
+
+        log.info("More than {} stations changed since {}, running a full sync instead",
+                props.getMaxPages() * pageSize, watermark);
+        return false;
+    }
+
+    private static Instant newestChange(List<RadioBrowserStationDto> stations) {
+        Instant newest = null;
+        for (var s : stations) {
+            var changedAt = RadioStationMapper.lastChangeAt(s);
+            if (changedAt != null && (newest == null || changedAt.isAfter(newest))) {
+                newest = changedAt;
+            }
+        }
+        return newest;
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.fabricetiennette.radiofy.backend.radio.sync;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "radio.sync")
+public class StationSyncProperties {
+
+    /** Only the DATABASE search backend reads the synced table. */
+    private boolean enabled = false;
+
+    /** Stations requested per page during an incremental sync. */
+    @Min(1)
+    @Max(10_000)
+    private int pageSize = 1_000;
+
+    /** Max pages read by one incremental run; beyond that a full sync is cheaper. */
+    @Min(1)
+    private int maxPages = 20;
+
+    /** Rows per JDBC batch. */
+    @Min(1)
+    private int batchSize = 500;
+
+    /** A full sync (which also detects removed stations) runs at least this often. */
+    @NotNull
+    private Duration fullSyncInterval = Duration.ofDays(1);
+}
@@ -0,0 +1,157 @@
+package io.github.fabricetiennette.radiofy.backend.user.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Invalidations over Postgres {@code LISTEN/NOTIFY}.
+ * <p>
+ * {@code pg_notify} is transactional: sent from inside a transaction, the notification is
+ * only delivered if and when it commits. A background thread keeps one pooled connection
+ * listening; after a connection loss, subscribers are asked to drop everything since
+ * notifications sent in the meantime are lost.
+ * <p>
+ * Session revocations go on their own channel, as {@code <epoch second>:<email>}: the cutoff
+ * is the one of the node that revoked, not the time of delivery.
+ */
+@Slf4j
+@Component
+public class PostgresUserInvalidationChannel implements UserInvalidationChannel {
+
+    static final String CHANNEL = "user_cache_invalidation";
+    static final String REVOCATION_CHANNEL = "user_session_revocation";
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresUserInvalidationChannel(DataSource dataSource, UserCacheProperties props) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // also carries the session revocations, needed even without a user cache
+        this.enabled = props.isNotify();
+    }
+
+    @Override
+    public void publish(String email) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.queryForList("select pg_notify(?, ?)", CHANNEL, email);
+        } catch (Exception e) {
+            // other nodes fall back on the TTL
+            log.warn("Could not publish user cache invalidation", e);
+        }
+    }
+
+    @Override
+    public void publishRevocation(String email, Instant revokedBefore) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.queryForList("select pg_notify(?, ?)",
+                    REVOCATION_CHANNEL, revokedBefore.getEpochSecond() + ":" + email);
+        } catch (Exception e) {
+            // other nodes accept the revoked tokens until they expire
+            log.warn("Could not publish session revocation", e);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform().daemon().name("user-cache-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                    statement.execute("LISTEN " + REVOCATION_CHANNEL);
+                }
+                var pg = connection.unwrap(PGConnection.class);
+                listeners.forEach(Listener::onInvalidateAll);
+                log.info("Listening for user cache invalidations on '{}'", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (var notification : notifications) {
+                        dispatch(notification);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("User cache invalidation listener failed, reconnecting in {} ms", RECONNECT_DELAY_MS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(PGNotification notification) {
+        String payload = notification.getParameter();
+        if (!REVOCATION_CHANNEL.equals(notification.getName())) {
+            listeners.forEach(listener -> listener.onInvalidate(payload));
+            return;
+        }
+        int separator = payload.indexOf(':');
+        Instant revokedBefore;
+        try {
+            revokedBefore = Instant.ofEpochSecond(Long.parseLong(payload.substring(0, Math.max(separator, 0))));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed session revocation '{}'", payload);
+            return;
+        }
+        String email = payload.substring(separator + 1);
+        listeners.forEach(listener -> listener.onRevoke(email, revokedBefore));
+    }
+}
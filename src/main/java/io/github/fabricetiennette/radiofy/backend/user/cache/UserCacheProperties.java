@@ -0,0 +1,32 @@
+package io.github.fabricetiennette.radiofy.backend.user.cache;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "security.user-cache")
+public class UserCacheProperties {
+
+    private boolean enabled = true;
+
+    @Min(1)
+    private long maximumSize = 10_000;
+
+    /** Upper bound on staleness for changes made outside the application (e.g. manual SQL). */
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Propagates invalidations and session revocations to the other nodes through Postgres
+     * LISTEN/NOTIFY (revocations also when the cache itself is disabled).
+     */
+    private boolean notify = true;
+}
@@ -0,0 +1,80 @@
+package io.github.fabricetiennette.radiofy.backend.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of the user data needed to authenticate, keyed by email.
+ * <p>
+ * Every change to a user's credentials, verification state, role or existence must go
+ * through {@link #invalidate(String)}: the entry is dropped here at once (and again after
+ * the surrounding transaction commits, so a concurrent read cannot re-cache the old row)
+ * and on the other nodes through the {@link UserInvalidationChannel}.
+ * The TTL only bounds changes made behind the application's back.
+ * Stats are published under the {@code cache.*} meters with {@code cache=users.auth}.
+ */
+@Component
+public class UserDetailsCache implements UserInvalidationChannel.Listener {
+
+    private final boolean enabled;
+    private final Cache<String, CachedUser> cache;
+    private final UserInvalidationChannel channel;
+
+    public UserDetailsCache(UserCacheProperties props, UserInvalidationChannel channel, MeterRegistry meterRegistry) {
+        this.enabled = props.isEnabled();
+        this.channel = channel;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfterWrite(props.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.auth");
+        channel.subscribe(this);
+    }
+
+    /** Cached user for {@code email}; exceptions of {@code loader} are thrown as is and nothing is cached. */
+    public CachedUser get(String email, Function<String, CachedUser> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+        return cache.get(email, loader);
+    }
+
+    /** To call whenever the user {@code email} changes, on every node. */
+    public void invalidate(String email) {
+        cache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(email);
+                }
+            });
+        }
+        channel.publish(email);
+    }
+
+    /** Received from the channel: only the local entry is dropped (no re-publication). */
+    @Override
+    public void onInvalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Immutable snapshot: Spring Security erases the password of the {@code UserDetails}
+     * it authenticated, so a fresh instance is built from this on every load.
+     */
+    public record CachedUser(String email, String passwordHash, String role) { }
+}
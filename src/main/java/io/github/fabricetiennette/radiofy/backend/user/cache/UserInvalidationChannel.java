@@ -0,0 +1,39 @@
+package io.github.fabricetiennette.radiofy.backend.user.cache;
+
+import java.time.Instant;
+
+/**
+ * Carries user cache invalidations between application nodes.
+ * <p>
+ * {@link PostgresUserInvalidationChannel} is the default; another transport (Redis pub/sub,
+ * a message broker...) can be plugged in by declaring a {@code @Primary} bean of this type.
+ */
+public interface UserInvalidationChannel {
+
+    /**
+     * Tells every node (this one included) that the user {@code email} changed.
+     * When called inside a transaction, delivery should wait for the commit.
+     */
+    void publish(String email);
+
+    /**
+     * Tells every node (this one included) that the sessions of {@code email} were revoked:
+     * its access tokens issued before {@code revokedBefore} must be rejected.
+     * When called inside a transaction, delivery should wait for the commit.
+     */
+    void publishRevocation(String email, Instant revokedBefore);
+
+    void subscribe(Listener listener);
+
+    interface Listener {
+
+        void onInvalidate(String email);
+
+        /** Sessions of {@code email} revoked; most listeners only cache data and ignore it. */
+        default void onRevoke(String email, Instant revokedBefore) {
+        }
+
+        /** Called when invalidations may have been missed, e.g. after a reconnection. */
+        void onInvalidateAll();
+    }
+}
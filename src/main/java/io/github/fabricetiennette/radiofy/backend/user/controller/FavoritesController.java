@@ -0,0 +1,61 @@
+package io.github.fabricetiennette.radiofy.backend.user.controller;
+
+import io.github.fabricetiennette.radiofy.backend.user.dto.FavoriteStationResponse;
+import io.github.fabricetiennette.radiofy.backend.user.dto.FavoritesRequest;
+import io.github.fabricetiennette.radiofy.backend.user.services.FavoriteService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Favorites of the authenticated user (principal name = email).
+ */
+@Validated
+@RestController
+@RequestMapping("/v1/user/favorites")
+@PreAuthorize("isAuthenticated()")
+@RequiredArgsConstructor
+public class FavoritesController {
+
+    private final FavoriteService favoriteService;
+
+    /** Newest first, with station metadata when the station is known locally. */
+    @GetMapping
+    public List<FavoriteStationResponse> list(Authentication auth) {
+        return favoriteService.list(auth.getName());
+    }
+
+    /** Idempotent. */
+    @PutMapping("/{stationId}")
+    public ResponseEntity<Void> add(Authentication auth, @PathVariable @Size(max = 64) String stationId) {
+        favoriteService.add(auth.getName(), stationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Idempotent. */
+    @DeleteMapping("/{stationId}")
+    public ResponseEntity<Void> remove(Authentication auth, @PathVariable @Size(max = 64) String stationId) {
+        favoriteService.remove(auth.getName(), stationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Adds several stations at once (already saved ones are ignored). */
+    @PostMapping
+    public ResponseEntity<Void> addAll(Authentication auth, @Valid @RequestBody FavoritesRequest req) {
+        favoriteService.addAll(auth.getName(), req.stationIds());
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Bulk sync: replaces the whole list (e.g. favorites kept on the device until now). */
+    @PutMapping
+    public List<FavoriteStationResponse> replaceAll(Authentication auth, @Valid @RequestBody FavoritesRequest req) {
+        return favoriteService.replaceAll(auth.getName(), req.stationIds());
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.fabricetiennette.radiofy.backend.user.dto;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+
+import java.time.Instant;
+
+/**
+ * A favorite with its station metadata; {@code station} is null when the station is unknown locally.
+ */
+public record FavoriteStationResponse(
+        String stationId,
+        Instant addedAt,
+        RadiofyStationDto station
+) {}
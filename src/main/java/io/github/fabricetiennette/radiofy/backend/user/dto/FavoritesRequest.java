@@ -0,0 +1,14 @@
+package io.github.fabricetiennette.radiofy.backend.user.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Station ids (Radio Browser stationuuid) to add, or to keep as the whole favorites list.
+ */
+public record FavoritesRequest(
+        @NotNull @Size(max = 500) List<@NotBlank @Size(max = 64) String> stationIds
+) {}
@@ -0,0 +1,38 @@
+package io.github.fabricetiennette.radiofy.backend.user.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A station (Radio Browser stationuuid) saved by a user. Table created by V1.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "favorites", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "station_id"}))
+@NoArgsConstructor
+public class Favorite {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "station_id", nullable = false, length = 64)
+    private String stationId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) createdAt = Instant.now();
+    }
+}
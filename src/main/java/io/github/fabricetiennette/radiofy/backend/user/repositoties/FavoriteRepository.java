@@ -0,0 +1,59 @@
+package io.github.fabricetiennette.radiofy.backend.user.repositoties;
+
+import io.github.fabricetiennette.radiofy.backend.user.entities.Favorite;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface FavoriteRepository extends JpaRepository<Favorite, UUID> {
+
+    /** Newest first. */
+    List<Favorite> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    /**
+     * Adds every station in one statement (already saved ones are ignored).
+     * Returns the number of rows inserted.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+           insert into favorites (user_id, station_id)
+           select :userId, s.station_id
+             from unnest(cast(:stationIds as varchar[])) as s(station_id)
+           on conflict (user_id, station_id) do nothing
+           """, nativeQuery = true)
+    int insertAll(@Param("userId") UUID userId, @Param("stationIds") String[] stationIds);
+
+    /**
+     * Makes the user's favorites exactly {@code stationIds} in one statement:
+     * the others are deleted, the missing ones inserted, the common ones kept (with their date).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+           with removed as (
+               delete from favorites
+                where user_id = :userId
+                  and station_id <> all(cast(:stationIds as varchar[]))
+           )
+           insert into favorites (user_id, station_id)
+           select :userId, s.station_id
+             from unnest(cast(:stationIds as varchar[])) as s(station_id)
+           on conflict (user_id, station_id) do nothing
+           """, nativeQuery = true)
+    int replaceAll(@Param("userId") UUID userId, @Param("stationIds") String[] stationIds);
+
+    @Transactional
+    @Modifying
+    @Query("""
+           delete from Favorite f
+            where f.userId = :userId
+              and f.stationId = :stationId
+           """)
+    int deleteOne(@Param("userId") UUID userId, @Param("stationId") String stationId);
+}
@@ -0,0 +1,144 @@
+package io.github.fabricetiennette.radiofy.backend.user.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.fabricetiennette.radiofy.backend.radio.service.RadioService;
+import io.github.fabricetiennette.radiofy.backend.user.dto.FavoriteStationResponse;
+import io.github.fabricetiennette.radiofy.backend.user.repositoties.FavoriteRepository;
+import io.github.fabricetiennette.radiofy.backend.user.repositoties.UserAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * User favorites, served from a per-user in-memory copy.
+ * <p>
+ * Reads hit Postgres once per user (then the cache until it expires). Writes go to Postgres
+ * first and are then applied to the cached copy (write-through), so a listing never needs
+ * a round trip. Multi-station writes are a single statement whatever the number of stations.
+ * Station metadata comes from the local catalog, never from one upstream call per favorite.
+ */
+@Service
+public class FavoriteService {
+
+    private final FavoriteRepository favoriteRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final RadioService radioService;
+    private final Cache<String, UserFavorites> cache;
+
+    public FavoriteService(FavoriteRepository favoriteRepository,
+                           UserAccountRepository userAccountRepository,
+                           RadioService radioService,
+                           FavoritesCacheProperties props,
+                           MeterRegistry meterRegistry) {
+        this.favoriteRepository = favoriteRepository;
+        this.userAccountRepository = userAccountRepository;
+        this.radioService = radioService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfterWrite(props.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "favorites");
+    }
+
+    public List<FavoriteStationResponse> list(String email) {
+        var favorites = favoritesOf(email);
+        var stations = radioService.findStations(favorites.stationIds());
+
+        var out = new ArrayList<FavoriteStationResponse>(favorites.entries().size());
+        for (var entry : favorites.entries()) {
+            out.add(new FavoriteStationResponse(entry.stationId(), entry.addedAt(), stations.get(entry.stationId())));
+        }
+        return out;
+    }
+
+    public void add(String email, String stationId) {
+        addAll(email, List.of(stationId));
+    }
+
+    /**
+     * Adds the stations in one insert; already saved ones are ignored.
+     * The write always reaches Postgres: another instance may have changed the list since it was cached.
+     */
+    public void addAll(String email, List<String> stationIds) {
+        var userId = favoritesOf(email).userId();
+        var added = new LinkedHashSet<>(stationIds);
+
+        favoriteRepository.insertAll(userId, added.toArray(String[]::new));
+        cache.asMap().computeIfPresent(email, (k, cached) -> cached.withAdded(added, Instant.now()));
+    }
+
+    public void remove(String email, String stationId) {
+        var userId = favoritesOf(email).userId();
+
+        favoriteRepository.deleteOne(userId, stationId);
+        cache.asMap().computeIfPresent(email, (k, cached) -> cached.withRemoved(stationId));
+    }
+
+    /**
+     * Bulk sync: the favorites become exactly {@code stationIds}, in one statement.
+     * Stations already saved keep their date.
+     */
+    public List<FavoriteStationResponse> replaceAll(String email, List<String> stationIds) {
+        var userId = favoritesOf(email).userId();
+        var wanted = new LinkedHashSet<>(stationIds);
+
+        favoriteRepository.replaceAll(userId, wanted.toArray(String[]::new));
+        // the kept rows keep their date: reload rather than guess it
+        cache.invalidate(email);
+        return list(email);
+    }
+
+    private UserFavorites favoritesOf(String email) {
+        return cache.get(email, this::load);
+    }
+
+    private UserFavorites load(String email) {
+        UUID userId = userAccountRepository.findByEmail(email)
+                .orElseThrow(() -> new NoSuchElementException("User not found"))
+                .getId();
+        var entries = favoriteRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(f -> new Entry(f.getStationId(), f.getCreatedAt()))
+                .toList();
+        return new UserFavorites(userId, entries);
+    }
+
+    private record Entry(String stationId, Instant addedAt) { }
+
+    /** Immutable cached copy, newest first. */
+    private record UserFavorites(UUID userId, List<Entry> entries) {
+
+        Set<String> stationIds() {
+            var ids = new LinkedHashSet<String>(entries.size());
+            for (var e : entries) ids.add(e.stationId());
+            return ids;
+        }
+
+        UserFavorites withAdded(Set<String> stationIds, Instant addedAt) {
+            var known = stationIds();
+            var next = new ArrayList<Entry>(entries.size() + stationIds.size());
+            for (String id : stationIds) {
+                if (!known.contains(id)) {
+                    next.add(new Entry(id, addedAt));
+                }
+            }
+            next.addAll(entries);
+            return new UserFavorites(userId, List.copyOf(next));
+        }
+
+        UserFavorites withRemoved(String stationId) {
+            return new UserFavorites(userId, entries.stream()
+                    .filter(e -> !e.stationId().equals(stationId))
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.fabricetiennette.radiofy.backend.user.services;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "favorites.cache")
+public class FavoritesCacheProperties {
+
+    /** Max number of users whose favorites are kept in memory. */
+    @Min(1)
+    private long maximumSize = 10_000;
+
+    /**
+     * Entries are dropped this long after they were loaded or last written, however often
+     * they are read: the TTL bounds staleness when another instance changes the same user.
+     */
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(30);
+}
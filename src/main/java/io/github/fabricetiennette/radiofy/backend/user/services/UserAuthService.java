@@ -1,9 +1,13 @@
 package io.github.fabricetiennette.radiofy.backend.user.services;
 
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserDetailsCache;
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserDetailsCache.CachedUser;
 import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -12,22 +16,39 @@ import java.util.List;
 
 @Service
 @RequiredArgsConstructor
-public class UserAuthService implements UserDetailsService {
+public class UserAuthService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserService userService;
+    private final UserDetailsCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        UserAccount user = userService.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        CachedUser user = userCache.get(email, this::load);
 
-        var role = user.getRole(); // ex: "USER" ou "ADMIN"
+        var role = user.role(); // ex: "USER" ou "ADMIN"
         var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getPasswordHash(),
+        // nouvelle instance à chaque appel : Spring Security efface le mot de passe après authentification
+        return new User(
+                user.email(),
+                user.passwordHash(),
                 authorities
         );
     }
+
+    /**
+     * Called by Spring Security after a successful login when the stored hash uses an
+     * outdated encoding (e.g. another BCrypt cost), with the password rehashed.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userService.updatePasswordHash(user.getUsername(), newPassword);
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
+    private CachedUser load(String email) {
+        UserAccount user = userService.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return new CachedUser(user.getEmail(), user.getPasswordHash(), user.getRole());
+    }
 }
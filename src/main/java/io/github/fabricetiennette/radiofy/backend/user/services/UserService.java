@@ -7,6 +7,7 @@ import java.util.Optional;
 public interface UserService {
     void register(String email, String rawPassword);
     void markEmailVerified(String email);
+    void updatePasswordHash(String email, String passwordHash);
 //    void archiveAndDeleteByEmail(String email);
     Optional<UserAccount> findByEmail(String email);
 //    Optional<UserAccount>  delete(UserAccount userAccount);
@@ -1,5 +1,6 @@
 package io.github.fabricetiennette.radiofy.backend.user.services;
 
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserDetailsCache;
 import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
 import io.github.fabricetiennette.radiofy.backend.user.repositoties.UserAccountRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +17,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserAccountRepository repo;
     private final PasswordEncoder encoder;
+    private final UserDetailsCache userCache;
 
     @Override
     public void register(String email, String rawPassword) {
@@ -36,11 +38,21 @@ public class UserServiceImpl implements UserService {
         return repo.findByEmail(email);
     }
 
+    @Override
+    public void updatePasswordHash(String email, String passwordHash) {
+        repo.findByEmail(email).ifPresent(user -> {
+            user.setPasswordHash(passwordHash);
+            repo.save(user);
+            userCache.invalidate(user.getEmail());
+        });
+    }
+
     @Override
     public void markEmailVerified(String email) {
         repo.findByEmail(email).ifPresent(user -> {
             user.setEmailVerifiedAt(Instant.now());
             repo.save(user);
+            userCache.invalidate(user.getEmail());
         });
     }
 }
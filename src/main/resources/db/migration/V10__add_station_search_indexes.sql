@@ -0,0 +1,38 @@
+-- 1) Extensions: trigram matching (typos, partial words) and accent folding
+create extension if not exists pg_trgm;
+create extension if not exists unaccent;
+
+-- 2) Search columns, kept up to date by a trigger (unaccent / array_to_string are not immutable,
+--    so they cannot be used in a generated column)
+alter table stations
+    add column if not exists search_name   text     not null default '',
+    add column if not exists search_vector tsvector not null default ''::tsvector;
+
+create or replace function stations_search_refresh() returns trigger
+    language plpgsql as $$
+begin
+    new.search_name := lower(unaccent(coalesce(new.name, '')));
+    new.search_vector :=
+               setweight(to_tsvector('simple', new.search_name), 'A')
+            || setweight(to_tsvector('simple', lower(unaccent(coalesce(array_to_string(new.tags, ' '), '')))), 'B')
+            || setweight(to_tsvector('simple', lower(unaccent(concat_ws(' ', new.country, new.language)))), 'C');
+    return new;
+end
+$$;
+
+drop trigger if exists trg_stations_search_refresh on stations;
+create trigger trg_stations_search_refresh
+    before insert or update of name, tags, country, language on stations
+    for each row execute function stations_search_refresh();
+
+-- 3) Backfill of the rows synced before this migration
+update stations set name = name;
+
+-- 4) Indexes: full-text (name > tags > country/language) and trigram on the folded name
+create index if not exists idx_stations_search_vector
+    on stations using gin (search_vector)
+    where deleted_at is null;
+
+create index if not exists idx_stations_search_name_trgm
+    on stations using gin (search_name gin_trgm_ops)
+    where deleted_at is null;
@@ -0,0 +1,4 @@
+-- Chaque refresh cherche (et met à jour) un jeton par son hash : sans index, c'est un seq scan.
+-- Unique comme déclaré sur l'entité (refresh_tokens_token_hash_key).
+create unique index if not exists refresh_tokens_token_hash_key
+    on refresh_tokens(token_hash);
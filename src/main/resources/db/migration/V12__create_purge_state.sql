@@ -0,0 +1,13 @@
+-- Progress of the chunked purges (one row per table): a run interrupted by its time budget
+-- or a restart resumes with the same cutoff
+create table if not exists purge_state (
+    table_name   varchar(64) primary key,
+    cutoff       timestamptz not null,        -- rows older than this are purged by the current run
+    started_at   timestamptz not null,
+    finished_at  timestamptz null,            -- null while the run is unfinished
+    rows_purged  bigint      not null default 0
+);
+
+-- email_otps purge: a code is due from its consumed_at when it was used, from its expires_at otherwise
+create index if not exists idx_email_otps_purge
+    on email_otps ((coalesce(consumed_at, expires_at)));
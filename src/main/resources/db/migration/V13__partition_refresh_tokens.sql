@@ -0,0 +1,90 @@
+-- refresh_tokens partitionnée par jour d'expiration : la rétention devient un drop de partition
+-- (plus de delete ligne à ligne) et les index restent à la taille des partitions vivantes.
+-- Postgres ne sait pas partitionner une table existante : nouvelle table, copie, renommage.
+
+create table refresh_tokens_partitioned (like refresh_tokens including defaults)
+    partition by range (expires_at);
+
+-- Pas de partition default : un jeton sans partition fait échouer l'insert, un retard de maintenance
+-- se voit tout de suite. Des lignes dans une default bloqueraient la création de la partition du jour
+-- correspondant (create ... partition of refuse), donc toutes les maintenances suivantes.
+
+alter table refresh_tokens rename to refresh_tokens_unpartitioned;
+alter table refresh_tokens_partitioned rename to refresh_tokens;
+
+-- Partitions journalières [jour, jour + 1) en UTC, nommées refresh_tokens_pAAAAMMJJ
+create or replace function refresh_tokens_ensure_partitions(from_day date, to_day date)
+    returns int
+    language plpgsql
+as $$
+declare
+    day     date;
+    created int := 0;
+begin
+    for day in select generate_series(from_day, to_day, interval '1 day')::date loop
+        if to_regclass('refresh_tokens_p' || to_char(day, 'YYYYMMDD')) is null then
+            execute format('create table %I partition of refresh_tokens for values from (%L) to (%L)',
+                           'refresh_tokens_p' || to_char(day, 'YYYYMMDD'),
+                           day::timestamp at time zone 'UTC',
+                           (day + 1)::timestamp at time zone 'UTC');
+            created := created + 1;
+        end if;
+    end loop;
+    return created;
+end;
+$$;
+
+-- Supprime les partitions entièrement expirées avant `before` ; lock_timeout court pour ne pas
+-- faire la queue (et bloquer les refresh) derrière une requête longue : réessayé au prochain passage
+create or replace function refresh_tokens_drop_partitions(before timestamptz)
+    returns int
+    language plpgsql
+as $$
+declare
+    part    text;
+    dropped int := 0;
+begin
+    perform set_config('lock_timeout', '5s', true);
+    for part in
+        select c.relname
+          from pg_inherits i
+          join pg_class c on c.oid = i.inhrelid
+         where i.inhparent = 'refresh_tokens'::regclass
+           and c.relname ~ '^refresh_tokens_p[0-9]{8}$'
+         order by c.relname
+    loop
+        exit when (to_date(substr(part, 17), 'YYYYMMDD') + 1)::timestamp at time zone 'UTC' > before;
+        execute format('drop table %I', part);
+        dropped := dropped + 1;
+    end loop;
+    return dropped;
+end;
+$$;
+
+-- Partitions des jetons encore valides + deux semaines d'avance (l'application prend le relais
+-- au démarrage), en jours UTC quel que soit le fuseau de la session
+select refresh_tokens_ensure_partitions(
+               (now() at time zone 'UTC')::date - 1,
+               greatest((select max(expires_at) at time zone 'UTC' from refresh_tokens_unpartitioned)::date,
+                        (now() at time zone 'UTC')::date + 14));
+
+-- Les jetons expirés ne servent plus à rien (la purge les aurait supprimés)
+insert into refresh_tokens
+select * from refresh_tokens_unpartitioned
+ where expires_at > now();
+
+drop table refresh_tokens_unpartitioned;
+
+-- Index et contraintes après la copie (plus rapide). Une contrainte unique d'une table partitionnée
+-- doit contenir la clé de partition : token_hash seul reste unique en pratique (SHA-256 d'un aléa de 256 bits).
+alter table refresh_tokens add primary key (id, expires_at);
+
+alter table refresh_tokens
+    add constraint refresh_tokens_token_hash_key unique (token_hash, expires_at);
+
+alter table refresh_tokens
+    add constraint fk_refresh_tokens_user foreign key (user_id) references users(id) on delete cascade;
+
+create index if not exists idx_refresh_tokens_user_id on refresh_tokens(user_id);
+create index if not exists idx_refresh_tokens_family_id on refresh_tokens(family_id);
+create index if not exists idx_refresh_tokens_expires_at on refresh_tokens(expires_at);
@@ -0,0 +1,6 @@
+-- Search without a query: filtered stations by popularity, paged by keyset on
+-- (click_count, station_uuid). Matching the order by, a page is an index range scan
+-- instead of a sort of every live station.
+create index if not exists idx_stations_popularity
+    on stations (click_count desc, station_uuid desc)
+    where deleted_at is null;
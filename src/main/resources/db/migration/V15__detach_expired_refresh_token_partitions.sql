@@ -0,0 +1,44 @@
+-- Un drop table d'une partition prend un verrou ACCESS EXCLUSIVE sur refresh_tokens : les refresh
+-- attendent derrière. L'application détache d'abord la partition (detach partition ... concurrently,
+-- hors transaction, donc pas depuis une fonction), puis supprime la table détachée, que plus
+-- aucune requête ne lit.
+
+drop function if exists refresh_tokens_drop_partitions(timestamptz);
+
+-- Partitions journalières entièrement expirées avant `before`, attachées ou non : un detach
+-- interrompu reste en attente (detach_pending, à terminer par finalize), une table détachée mais
+-- pas encore supprimée n'est plus une partition
+create or replace function refresh_tokens_expired_partitions(before timestamptz)
+    returns table (name text, attached boolean, detach_pending boolean)
+    language sql
+    stable
+as $$
+    select c.relname::text,
+           i.inhrelid is not null,
+           coalesce(i.inhdetachpending, false)
+      from pg_class c
+      left join pg_inherits i on i.inhrelid = c.oid and i.inhparent = 'refresh_tokens'::regclass
+     where c.relkind = 'r'
+       and c.relnamespace = current_schema()::regnamespace
+       and c.relname ~ '^refresh_tokens_p[0-9]{8}$'
+       and (to_date(substr(c.relname, 17), 'YYYYMMDD') + 1)::timestamp at time zone 'UTC' <= before
+     order by c.relname;
+$$;
+
+-- Supprime une partition déjà détachée. Sa clé étrangère verrouille users le temps du drop :
+-- lock_timeout court pour ne pas faire la queue derrière une requête longue, réessayé au prochain passage
+create or replace function refresh_tokens_drop_detached_partition(part text)
+    returns void
+    language plpgsql
+as $$
+begin
+    if part !~ '^refresh_tokens_p[0-9]{8}$' then
+        raise exception 'not a refresh_tokens partition: %', part;
+    end if;
+    if exists (select 1 from pg_inherits where inhrelid = to_regclass(part)) then
+        raise exception '% is still attached to refresh_tokens', part;
+    end if;
+    perform set_config('lock_timeout', '5s', true);
+    execute format('drop table if exists %I', part);
+end;
+$$;
@@ -0,0 +1,47 @@
+-- Local copy of the Radio Browser station catalog (filled by the catalog synchronizer)
+create table if not exists stations (
+    station_uuid    varchar(64) primary key,          -- Radio Browser stationuuid
+    name            text        not null,
+    stream_url      text        null,
+    image_url       text        null,
+    country         text        null,
+    country_code    varchar(8)  null,
+    language        text        null,
+    tags            text[]      not null default '{}',
+    codec           varchar(32) null,
+    bitrate         int         not null default 0,
+    votes           int         not null default 0,
+    click_count     int         not null default 0,
+    last_change_at  timestamptz null,                 -- Radio Browser lastchangetime
+    synced_at       timestamptz not null default now(),
+    deleted_at      timestamptz null                  -- gone upstream (or broken) since last full sync
+);
+
+-- name prefix lookups: lower(name) like 'fip%'
+create index if not exists idx_stations_name_lower
+    on stations (lower(name) text_pattern_ops)
+    where deleted_at is null;
+
+-- tag lookups: tags @> array['jazz']
+create index if not exists idx_stations_tags
+    on stations using gin (tags)
+    where deleted_at is null;
+
+-- country lookups (both the name and the ISO code)
+create index if not exists idx_stations_country_lower
+    on stations (lower(country))
+    where deleted_at is null;
+
+create index if not exists idx_stations_country_code
+    on stations (country_code)
+    where deleted_at is null;
+
+-- single-row sync bookkeeping
+create table if not exists station_sync_state (
+    id                 smallint    primary key check (id = 1),
+    last_change_at     timestamptz null,   -- high-water mark of applied upstream changes
+    last_full_sync_at  timestamptz null,
+    updated_at         timestamptz not null default now()
+);
+
+insert into station_sync_state (id) values (1) on conflict (id) do nothing;
@@ -0,0 +1,44 @@
+package io.github.fabricetiennette.radiofy.backend.AuthTest;
+
+import io.github.fabricetiennette.radiofy.backend.auth.password.AdaptiveBCryptPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5, registry);
+
+    @Test
+    void weaker_hashes_are_upgraded_stronger_ones_kept_and_both_match() {
+        var lower = new BCryptPasswordEncoder(4).encode("secret");
+        var higher = new BCryptPasswordEncoder(6).encode("secret");
+
+        assertThat(encoder.matches("secret", lower)).isTrue();
+        assertThat(encoder.matches("secret", higher)).isTrue();
+        assertThat(encoder.upgradeEncoding(lower)).isTrue();
+        assertThat(encoder.upgradeEncoding(higher)).isFalse();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding("not-a-bcrypt-hash")).isFalse();
+    }
+
+    @Test
+    void hashing_time_is_recorded_per_cost() {
+        encoder.encode("secret");
+        encoder.matches("secret", new BCryptPasswordEncoder(4).encode("secret"));
+
+        assertThat(registry.get("password.hashing.bcrypt").tags("op", "encode", "cost", "5").timer().count()).isEqualTo(1);
+        assertThat(registry.get("password.hashing.bcrypt").tags("op", "matches", "cost", "4").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void calibration_stays_within_bounds() {
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrate(Duration.ZERO, 4, 6)).isEqualTo(4);
+        assertThat(AdaptiveBCryptPasswordEncoder.calibrate(Duration.ofSeconds(30), 4, 6)).isEqualTo(6);
+    }
+}
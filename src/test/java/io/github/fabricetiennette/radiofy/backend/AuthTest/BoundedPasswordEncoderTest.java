@@ -0,0 +1,117 @@
+package io.github.fabricetiennette.radiofy.backend.AuthTest;
+
+import io.github.fabricetiennette.radiofy.backend.auth.password.BoundedPasswordEncoder;
+import io.github.fabricetiennette.radiofy.backend.auth.password.PasswordHashingBusyException;
+import io.github.fabricetiennette.radiofy.backend.auth.password.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void shutdown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void hashes_run_on_the_pool_and_are_timed() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), props(1, 4), registry);
+
+        var hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(registry.get("password.hashing.duration").tag("op", "encode").timer().count()).isEqualTo(1);
+        assertThat(registry.get("password.hashing.duration").tag("op", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void a_full_queue_is_rejected_fast() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), props(1, 0), registry);
+
+        var first = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> encoder.encode("b"))
+                .isInstanceOf(PasswordHashingBusyException.class)
+                .satisfies(e -> assertThat(((PasswordHashingBusyException) e).getRetryAfter()).isEqualTo(Duration.ofSeconds(2)));
+        assertThat(registry.get("password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+
+    @Test
+    void outdated_hashes_are_not_upgraded_while_the_pool_is_busy() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), props(1, 4), registry);
+        assertThat(encoder.upgradeEncoding("old")).isTrue();
+
+        var first = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(encoder.upgradeEncoding("old")).isFalse();
+        assertThat(registry.get("password.hashing.upgrade.deferred").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        await(() -> encoder.upgradeEncoding("old"));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static PasswordHashingProperties props(int threads, int queueCapacity) {
+        var props = new PasswordHashingProperties();
+        props.setThreads(threads);
+        props.setQueueCapacity(queueCapacity);
+        return props;
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return "old".equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.fabricetiennette.radiofy.backend.AuthTest;
+
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtAuthenticationFilter;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtPrincipal;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtProperties;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtService;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtSigningKeys;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.VerifiedTokenCache;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.VerifiedTokenCacheProperties;
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserInvalidationChannel;
+import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private final JwtProperties props = new JwtProperties();
+    private final UserDetailsService uds = mock(UserDetailsService.class);
+    private JwtService jwt;
+    private JwtAuthenticationFilter filter;
+    private UserAccount user;
+
+    @BeforeEach
+    void setUp() {
+        props.setSecret("test-test-test-test-test-test-test-test");
+        jwt = new JwtService(props, new JwtSigningKeys(props));
+        var verifiedTokens = new VerifiedTokenCache(jwt, new VerifiedTokenCacheProperties(),
+                mock(UserInvalidationChannel.class), new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(jwt, verifiedTokens, uds);
+
+        user = new UserAccount();
+        user.setId(UUID.randomUUID());
+        user.setEmail("user@radiofy.io");
+        user.setRole("ADMIN");
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stateless_mode_authenticates_from_claims_without_loading_the_user() throws Exception {
+        props.setStateless(true);
+
+        authenticate(jwt.generateAccess(user));
+
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(auth.getName()).isEqualTo("user@radiofy.io");
+        assertThat(auth.getPrincipal()).isEqualTo(new JwtPrincipal(user.getId(), "user@radiofy.io", "ADMIN"));
+        assertThat(auth.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        verifyNoInteractions(uds);
+    }
+
+    @Test
+    void tokens_without_role_claims_fall_back_to_the_user_lookup() throws Exception {
+        props.setStateless(true);
+        when(uds.loadUserByUsername(anyString()))
+                .thenReturn(User.withUsername("user@radiofy.io").password("x").roles("USER").build());
+
+        authenticate(jwt.generateAccess("user@radiofy.io", Map.of("typ", "access")));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("user@radiofy.io");
+        verify(uds).loadUserByUsername("user@radiofy.io");
+    }
+
+    @Test
+    void an_unreadable_uid_falls_back_to_the_user_lookup() throws Exception {
+        props.setStateless(true);
+        when(uds.loadUserByUsername(anyString()))
+                .thenReturn(User.withUsername("user@radiofy.io").password("x").roles("USER").build());
+
+        authenticate(jwt.generateAccess("user@radiofy.io",
+                Map.of("typ", "access", JwtService.CLAIM_USER_ID, "not-a-uuid", JwtService.CLAIM_ROLE, "ADMIN")));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        verify(uds).loadUserByUsername("user@radiofy.io");
+    }
+
+    @Test
+    void errors_of_the_rest_of_the_chain_are_not_taken_for_a_bad_token() {
+        props.setStateless(true);
+        var request = new MockHttpServletRequest("GET", "/v1/user/me");
+        request.addHeader("Authorization", "Bearer " + jwt.generateAccess(user));
+
+        assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            throw new IllegalArgumentException("bad request parameter");
+        })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void default_mode_still_loads_the_user() throws Exception {
+        when(uds.loadUserByUsername(anyString()))
+                .thenReturn(User.withUsername("user@radiofy.io").password("x").roles("USER").build());
+
+        authenticate(jwt.generateAccess(user));
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+        verify(uds).loadUserByUsername("user@radiofy.io");
+    }
+
+    private void authenticate(String token) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/v1/user/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.fabricetiennette.radiofy.backend.AuthTest;
+
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtProperties;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtService;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtSigningKeys;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtSigningKeysTest {
+
+    @TempDir
+    Path keysDir;
+
+    @Test
+    void es256_tokens_carry_the_kid_and_verify_with_the_published_key() throws Exception {
+        writePair("2026-01", ecKeyPair());
+        var keys = new JwtSigningKeys(props(JwtProperties.Algorithm.ES256));
+        var jwt = new JwtService(props(JwtProperties.Algorithm.ES256), keys);
+
+        var token = jwt.generateAccess("user@radiofy.io", Map.of("typ", "access"));
+
+        assertThat(header(token)).contains("\"kid\":\"2026-01\"").contains("\"alg\":\"ES256\"");
+        assertThat(jwt.verify(token).getSubject()).isEqualTo("user@radiofy.io");
+        assertThat(keys.jwks().json()).contains("\"kid\":\"2026-01\"").contains("\"kty\":\"EC\"");
+    }
+
+    @Test
+    void rotation_keeps_old_tokens_valid_until_their_key_is_removed() throws Exception {
+        writePair("2026-01", ecKeyPair());
+        var props = props(JwtProperties.Algorithm.ES256);
+        var keys = new JwtSigningKeys(props);
+        var jwt = new JwtService(props, keys);
+        var oldToken = jwt.generateAccess("user@radiofy.io", Map.of());
+        var oldEtag = keys.jwks().etag();
+
+        writePair("2026-02", ecKeyPair());
+        Files.writeString(keysDir.resolve("active-kid"), "2026-02\n");
+        keys.reload();
+
+        assertThat(header(jwt.generateAccess("user@radiofy.io", Map.of()))).contains("\"kid\":\"2026-02\"");
+        assertThat(jwt.verify(oldToken).getSubject()).isEqualTo("user@radiofy.io");
+        assertThat(keys.jwks().etag()).isNotEqualTo(oldEtag);
+
+        Files.delete(keysDir.resolve("2026-01.key.pem"));
+        Files.delete(keysDir.resolve("2026-01.pub.pem"));
+        keys.reload();
+
+        assertThatThrownBy(() -> jwt.verify(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void eddsa_keys_are_supported_and_hmac_tokens_without_kid_verify_when_allowed() throws Exception {
+        writePair("ed-1", KeyPairGenerator.getInstance("Ed25519").generateKeyPair());
+        var props = props(JwtProperties.Algorithm.EdDSA);
+        props.setSecret("test-test-test-test-test-test-test-test");
+        props.setAcceptLegacyHmac(true);
+        var jwt = new JwtService(props, new JwtSigningKeys(props));
+
+        assertThat(header(jwt.generateAccess("user@radiofy.io", Map.of()))).contains("\"alg\":\"EdDSA\"");
+        assertThat(jwt.verify(legacyToken(props.getSecret())).getSubject()).isEqualTo("user@radiofy.io");
+    }
+
+    @Test
+    void hmac_tokens_without_kid_are_rejected_by_default_once_asymmetric() throws Exception {
+        writePair("2026-01", ecKeyPair());
+        var props = props(JwtProperties.Algorithm.ES256);
+        props.setSecret("test-test-test-test-test-test-test-test");
+        var jwt = new JwtService(props, new JwtSigningKeys(props));
+
+        assertThatThrownBy(() -> jwt.verify(legacyToken(props.getSecret()))).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void accepting_legacy_hmac_tokens_requires_the_secret() throws Exception {
+        writePair("2026-01", ecKeyPair());
+        var props = props(JwtProperties.Algorithm.ES256);
+        props.setAcceptLegacyHmac(true);
+        var keys = new JwtSigningKeys(props);
+
+        assertThatThrownBy(() -> new JwtService(props, keys)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void a_broken_reload_keeps_the_current_keys() throws Exception {
+        writePair("2026-01", ecKeyPair());
+        var keys = new JwtSigningKeys(props(JwtProperties.Algorithm.ES256));
+
+        Files.writeString(keysDir.resolve("active-kid"), "missing");
+        keys.reload();
+
+        assertThat(keys.signingKey().kid()).isEqualTo("2026-01");
+    }
+
+    private JwtProperties props(JwtProperties.Algorithm algorithm) {
+        var props = new JwtProperties();
+        props.setAlgorithm(algorithm);
+        props.setKeysDir(keysDir);
+        return props;
+    }
+
+    private void writePair(String kid, KeyPair pair) throws Exception {
+        Files.writeString(keysDir.resolve(kid + ".key.pem"), pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+        Files.writeString(keysDir.resolve(kid + ".pub.pem"), pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+    }
+
+    private static KeyPair ecKeyPair() throws Exception {
+        var generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static String legacyToken(String secret) {
+        return Jwts.builder().subject("user@radiofy.io")
+                .signWith(io.jsonwebtoken.security.Keys.hmacShaKeyFor(secret.getBytes()))
+                .compact();
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+    }
+}
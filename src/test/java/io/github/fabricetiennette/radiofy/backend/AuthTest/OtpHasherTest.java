@@ -0,0 +1,44 @@
+package io.github.fabricetiennette.radiofy.backend.AuthTest;
+
+import io.github.fabricetiennette.radiofy.backend.auth.OtpHasher;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OtpHasherTest {
+
+    private final BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+    private final OtpHasher hasher = new OtpHasher(bcrypt, "test-pepper-test-pepper-test-pepper");
+
+    @Test
+    void codes_are_hashed_with_a_versioned_salted_hmac() {
+        var first = hasher.hash("123456");
+        var second = hasher.hash("123456");
+
+        assertThat(first).startsWith("$otp1$").isNotEqualTo(second);
+        assertThat(hasher.matches("123456", first)).isTrue();
+        assertThat(hasher.matches("123457", first)).isFalse();
+    }
+
+    @Test
+    void another_pepper_does_not_verify() {
+        var other = new OtpHasher(bcrypt, "another-pepper-another-pepper-another");
+
+        assertThat(other.matches("123456", hasher.hash("123456"))).isFalse();
+    }
+
+    @Test
+    void legacy_bcrypt_hashes_still_verify() {
+        var legacy = bcrypt.encode("654321");
+
+        assertThat(hasher.matches("654321", legacy)).isTrue();
+        assertThat(hasher.matches("000000", legacy)).isFalse();
+    }
+
+    @Test
+    void malformed_hashes_do_not_match() {
+        assertThat(hasher.matches("123456", "$otp1$not-base64!")).isFalse();
+        assertThat(hasher.matches("123456", "$otp1$abc$%%%")).isFalse();
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.fabricetiennette.radiofy.backend.AuthTest;
+
+import io.github.fabricetiennette.radiofy.backend.auth.refresh.repositories.RefreshTokenPartitionRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+class RefreshTokenPartitionRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:17-alpine");
+
+    static JdbcTemplate jdbcTemplate;
+    static RefreshTokenPartitionRepository partitions;
+    static UUID userId;
+
+    @BeforeAll
+    static void migrate() {
+        var dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        partitions = new RefreshTokenPartitionRepository(jdbcTemplate);
+
+        userId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                insert into users (id, email, password_hash, display_name, role, created_at)
+                values (?, 'partitions@radiofy.io', 'hash', 'partitions', 'USER', now())
+                """, userId);
+    }
+
+    @Test
+    void tokens_land_in_their_expiry_day_and_expired_days_are_dropped() {
+        var today = LocalDate.now(ZoneOffset.UTC);
+        partitions.ensurePartitions(today.minusDays(3), today.plusDays(3));
+        assertThat(partitions.ensurePartitions(today.minusDays(3), today.plusDays(3))).isZero();
+
+        var now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        insertToken(now.minus(2, ChronoUnit.DAYS));
+        insertToken(now.plus(2, ChronoUnit.DAYS));
+        assertThat(partitionOf(now.minus(2, ChronoUnit.DAYS)))
+                .isEqualTo(partitionName(today.minusDays(2)));
+
+        int dropped = partitions.dropPartitionsBefore(now);
+
+        assertThat(dropped).isGreaterThanOrEqualTo(3); // today - 3 .. today - 1, plus older ones of the migration
+        assertThat(jdbcTemplate.queryForObject("select count(*) from refresh_tokens", Integer.class)).isEqualTo(1);
+        assertThat(partitionOf(now.plus(2, ChronoUnit.DAYS))).startsWith("refresh_tokens_p");
+        assertThat(tableExists(today.minusDays(2))).isFalse();
+    }
+
+    @Test
+    void a_partition_left_detached_is_dropped_on_the_next_run() {
+        var day = LocalDate.now(ZoneOffset.UTC).minusDays(10);
+        partitions.ensurePartitions(day, day);
+        // stands for a run interrupted between the detach and the drop
+        jdbcTemplate.execute("alter table refresh_tokens detach partition " + partitionName(day));
+
+        int dropped = partitions.dropPartitionsBefore(Instant.now());
+
+        assertThat(dropped).isGreaterThanOrEqualTo(1);
+        assertThat(tableExists(day)).isFalse();
+    }
+
+    @Test
+    void a_token_without_partition_is_rejected() {
+        var farAhead = Instant.now().plus(400, ChronoUnit.DAYS);
+
+        // no default partition: a maintenance lapse fails the insert instead of hiding the row
+        assertThatThrownBy(() -> insertToken(farAhead))
+                .isInstanceOf(DataAccessException.class)
+                .hasMessageContaining("no partition");
+    }
+
+    private static void insertToken(Instant expiresAt) {
+        jdbcTemplate.update("""
+                insert into refresh_tokens (id, user_id, family_id, token_hash, issued_at, expires_at, created_at)
+                values (gen_random_uuid(), ?, gen_random_uuid(), ?, now(), ?, now())
+                """, userId, UUID.randomUUID().toString(), Timestamp.from(expiresAt));
+    }
+
+    private static String partitionName(LocalDate day) {
+        return "refresh_tokens_p" + day.toString().replace("-", "");
+    }
+
+    private static boolean tableExists(LocalDate day) {
+        return jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, partitionName(day));
+    }
+
+    private static String partitionOf(Instant expiresAt) {
+        return jdbcTemplate.queryForObject("""
+                select tableoid::regclass::text from refresh_tokens where expires_at = ?
+                """, String.class, Timestamp.from(expiresAt));
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.fabricetiennette.radiofy.backend.AuthTest;
+
+import io.github.fabricetiennette.radiofy.backend.auth.otp.services.SmtpEmailSender;
+import io.github.fabricetiennette.radiofy.backend.auth.refresh.entities.RefreshToken;
+import io.github.fabricetiennette.radiofy.backend.auth.refresh.repositories.RefreshTokenRepository;
+import io.github.fabricetiennette.radiofy.backend.auth.refresh.revocation.RevokedFamilyFilter;
+import io.github.fabricetiennette.radiofy.backend.auth.refresh.services.RefreshTokenService;
+import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
+import io.github.fabricetiennette.radiofy.backend.user.repositoties.UserAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+@ActiveProfiles("test")
+@SpringBootTest
+class RefreshTokenRotationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("radiofy_test")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configure(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("spring.flyway.user", postgres::getUsername);
+        registry.add("spring.flyway.password", postgres::getPassword);
+    }
+
+    @Autowired RefreshTokenService refreshTokens;
+    @Autowired RefreshTokenRepository repository;
+    @Autowired UserAccountRepository users;
+    @Autowired RevokedFamilyFilter revokedFamilies;
+
+    @MockitoBean
+    SmtpEmailSender smtpEmailSender;
+
+    UserAccount user;
+
+    @BeforeEach
+    void createUser() {
+        var account = new UserAccount();
+        account.setEmail("rotation_%s@radiofy.io".formatted(UUID.randomUUID()));
+        account.setPasswordHash("{noop}unused");
+        account.setDisplayName("rotation");
+        user = users.save(account);
+    }
+
+    @Test
+    void rotation_returns_the_owner_and_chains_the_successor() throws Exception {
+        var first = refreshTokens.issueInitialRefreshToken(user, "127.0.0.1", "junit");
+
+        var rotation = refreshTokens.rotateRefreshToken(first, "127.0.0.1", null);
+
+        assertThat(rotation.userId()).isEqualTo(user.getId());
+        assertThat(rotation.email()).isEqualTo(user.getEmail());
+        assertThat(rotation.role()).isEqualTo("USER");
+
+        var old = repository.findByTokenHash(hash(first)).orElseThrow();
+        var next = repository.findByTokenHash(hash(rotation.refreshToken())).orElseThrow();
+        assertThat(old.getUsedAt()).isNotNull();
+        assertThat(next.getParentId()).isEqualTo(old.getId());
+        assertThat(next.getFamilyId()).isEqualTo(old.getFamilyId());
+        assertThat(next.getUsedAt()).isNull();
+    }
+
+    @Test
+    void retry_within_the_grace_window_returns_the_same_successor() throws Exception {
+        var first = refreshTokens.issueInitialRefreshToken(user, "127.0.0.1", "junit");
+        var rotation = refreshTokens.rotateRefreshToken(first, "127.0.0.1", "junit");
+
+        var retry = refreshTokens.rotateRefreshToken(first, "127.0.0.1", "junit");
+
+        assertThat(retry).isEqualTo(rotation);
+        var successor = repository.findByTokenHash(hash(rotation.refreshToken())).orElseThrow();
+        assertThat(successor.getRevokedAt()).isNull();
+    }
+
+    @Test
+    void reuse_revokes_the_family_and_the_revocation_is_kept() throws Exception {
+        var first = refreshTokens.issueInitialRefreshToken(user, "127.0.0.1", "junit");
+        var second = refreshTokens.rotateRefreshToken(first, "127.0.0.1", "junit").refreshToken();
+        var third = refreshTokens.rotateRefreshToken(second, "127.0.0.1", "junit").refreshToken();
+
+        // the client already moved on to the successor: no grace
+        assertThatThrownBy(() -> refreshTokens.rotateRefreshToken(first, "127.0.0.1", "junit"))
+                .isInstanceOf(SecurityException.class)
+                .hasMessageContaining("reuse");
+
+        var latest = repository.findByTokenHash(hash(third)).orElseThrow();
+        assertThat(latest.getRevokedAt()).isNotNull();
+        assertThatThrownBy(() -> refreshTokens.rotateRefreshToken(third, "127.0.0.1", "junit"))
+                .isInstanceOf(SecurityException.class)
+                .hasMessageContaining("revoked");
+    }
+
+    @Test
+    void revoked_families_are_rejected_by_the_filter() throws Exception {
+        var first = refreshTokens.issueInitialRefreshToken(user, "127.0.0.1", "junit");
+        var familyId = repository.findByTokenHash(hash(first)).orElseThrow().getFamilyId();
+        revokedFamilies.rebuild(); // normally on startup, asynchronously
+        assertThat(revokedFamilies.mightBeRevoked(familyId)).isFalse();
+
+        refreshTokens.revokeAllForUserEmail(user.getEmail());
+
+        assertThat(revokedFamilies.mightBeRevoked(familyId)).isTrue();
+        assertThatThrownBy(() -> refreshTokens.rotateRefreshToken(first, "127.0.0.1", "junit"))
+                .isInstanceOf(SecurityException.class)
+                .hasMessageContaining("revoked");
+    }
+
+    @Test
+    void filter_hits_the_database_does_not_confirm_are_rotated() throws Exception {
+        var first = refreshTokens.issueInitialRefreshToken(user, "127.0.0.1", "junit");
+        var familyId = repository.findByTokenHash(hash(first)).orElseThrow().getFamilyId();
+        revokedFamilies.rebuild();
+
+        // stands for a false positive: in the filter, never revoked in the database
+        revokedFamilies.revoked(List.of(familyId));
+
+        assertThat(revokedFamilies.mightBeRevoked(familyId)).isTrue();
+        var rotation = refreshTokens.rotateRefreshToken(first, "127.0.0.1", "junit");
+        assertThat(repository.findByTokenHash(hash(rotation.refreshToken()))).isPresent();
+    }
+
+    @Test
+    void tokens_carry_their_expiry_day_and_older_formats_still_rotate() throws Exception {
+        var token = refreshTokens.issueInitialRefreshToken(user, "127.0.0.1", "junit");
+
+        var prefix = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        var stored = repository.findByTokenHash(hash(token)).orElseThrow();
+        assertThat(prefix.getInt(16)).isEqualTo(LocalDate.ofInstant(stored.getExpiresAt(), ZoneOffset.UTC).toEpochDay());
+
+        var familyId = UUID.randomUUID();
+        var family = ByteBuffer.allocate(16)
+                .putLong(familyId.getMostSignificantBits())
+                .putLong(familyId.getLeastSignificantBits())
+                .array();
+        var familyOnly = Base64.getUrlEncoder().withoutPadding().encodeToString(family) + ".legacy-secret";
+        var noPrefix = "legacy-" + UUID.randomUUID();
+        saveToken(familyOnly, familyId);
+        saveToken(noPrefix, UUID.randomUUID());
+
+        assertThat(refreshTokens.rotateRefreshToken(familyOnly, "127.0.0.1", "junit").userId()).isEqualTo(user.getId());
+        assertThat(refreshTokens.rotateRefreshToken(noPrefix, "127.0.0.1", "junit").userId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void unknown_token_is_rejected() {
+        assertThatThrownBy(() -> refreshTokens.rotateRefreshToken("unknown", "127.0.0.1", "junit"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void saveToken(String raw, UUID familyId) throws NoSuchAlgorithmException {
+        var now = Instant.now();
+        repository.save(RefreshToken.builder()
+                .user(user)
+                .familyId(familyId)
+                .tokenHash(hash(raw))
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofDays(1)))
+                .createdAt(now)
+                .build());
+    }
+
+    private static String hash(String raw) throws NoSuchAlgorithmException {
+        var digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.fabricetiennette.radiofy.backend.AuthTest;
+
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtProperties;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtService;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtSigningKeys;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.VerifiedTokenCache;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.VerifiedTokenCacheProperties;
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserInvalidationChannel;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "test-test-test-test-test-test-test-test";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtService jwt = jwtService();
+    private final RecordingChannel channel = new RecordingChannel();
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(jwt, new VerifiedTokenCacheProperties(), channel, registry);
+
+    @Test
+    void repeated_tokens_are_verified_once() {
+        var token = jwt.generateAccess("user@radiofy.io", Map.of("typ", "access"));
+
+        var first = cache.verify(token);
+        var second = cache.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(registry.get("auth.jwt.verify").tag("result", "miss").timer().count()).isEqualTo(1);
+        assertThat(registry.get("auth.jwt.verify").tag("result", "hit").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void tokens_issued_before_a_revocation_are_rejected_cached_or_not() {
+        var cached = issuedAgo("user@radiofy.io", Duration.ofMinutes(2));
+        var notCached = issuedAgo("user@radiofy.io", Duration.ofMinutes(1));
+        var otherUser = issuedAgo("other@radiofy.io", Duration.ofMinutes(1));
+        cache.verify(cached);
+
+        cache.invalidateSubject("user@radiofy.io");
+
+        assertThatThrownBy(() -> cache.verify(cached)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.verify(notCached)).isInstanceOf(JwtException.class);
+        assertThat(cache.verify(otherUser).getSubject()).isEqualTo("other@radiofy.io");
+    }
+
+    @Test
+    void revocations_are_published_and_those_of_other_nodes_applied() {
+        var cached = issuedAgo("user@radiofy.io", Duration.ofMinutes(2));
+        cache.verify(cached);
+
+        cache.invalidateSubject("other@radiofy.io");
+        assertThat(channel.revoked).containsExactly("other@radiofy.io");
+
+        // revoked by another node, received through the channel
+        channel.listener.onRevoke("user@radiofy.io", Instant.now().minus(Duration.ofMinutes(1)));
+
+        assertThatThrownBy(() -> cache.verify(cached)).isInstanceOf(JwtException.class);
+        assertThat(channel.revoked).containsExactly("other@radiofy.io");
+    }
+
+    @Test
+    void user_data_changes_do_not_revoke_tokens() {
+        var cached = issuedAgo("user@radiofy.io", Duration.ofMinutes(2));
+        cache.verify(cached);
+
+        channel.listener.onInvalidate("user@radiofy.io");
+
+        assertThat(cache.verify(cached).getSubject()).isEqualTo("user@radiofy.io");
+    }
+
+    @Test
+    void tokens_issued_after_a_revocation_are_accepted() {
+        cache.invalidateSubject("user@radiofy.io");
+
+        var token = jwt.generateAccess("user@radiofy.io", Map.of("typ", "access"));
+
+        assertThat(cache.verify(token).getSubject()).isEqualTo("user@radiofy.io");
+        assertThat(cache.verify(token).getSubject()).isEqualTo("user@radiofy.io");
+    }
+
+    @Test
+    void tampered_tokens_are_rejected_and_never_cached() {
+        var token = jwt.generateAccess("user@radiofy.io", Map.of("typ", "access"));
+        var tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> cache.verify(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    private static final class RecordingChannel implements UserInvalidationChannel {
+
+        final List<String> revoked = new ArrayList<>();
+        Listener listener;
+
+        @Override
+        public void publish(String email) {
+        }
+
+        @Override
+        public void publishRevocation(String email, Instant revokedBefore) {
+            revoked.add(email);
+        }
+
+        @Override
+        public void subscribe(Listener listener) {
+            this.listener = listener;
+        }
+    }
+
+    /** Access token signed like JwtService does, but issued {@code ago}. */
+    private static String issuedAgo(String subject, Duration ago) {
+        var issuedAt = Instant.now().minus(ago);
+        return Jwts.builder()
+                .subject(subject)
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(issuedAt.plus(Duration.ofMinutes(15))))
+                .claim("typ", "access")
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private static JwtService jwtService() {
+        var props = new JwtProperties();
+        props.setSecret(SECRET);
+        return new JwtService(props, new JwtSigningKeys(props));
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.fabricetiennette.radiofy.backend.HousekeepingTest;
+
+import io.github.fabricetiennette.radiofy.backend.housekeeping.ChunkedPurger;
+import io.github.fabricetiennette.radiofy.backend.housekeeping.PurgeProperties;
+import io.github.fabricetiennette.radiofy.backend.housekeeping.PurgeStateRepository;
+import io.github.fabricetiennette.radiofy.backend.housekeeping.PurgeTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class ChunkedPurgerTest {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:17-alpine");
+
+    static JdbcTemplate jdbcTemplate;
+
+    PurgeProperties props;
+    PurgeStateRepository states;
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void migrate() {
+        var dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("truncate email_otps, purge_state");
+        // 25 expired, 5 consumed, 10 still active
+        insertOtps(25, "now() - interval '1 hour'", "null");
+        insertOtps(5, "now() + interval '1 hour'", "now() - interval '1 minute'");
+        insertOtps(10, "now() + interval '1 hour'", "null");
+
+        props = new PurgeProperties();
+        props.setBatchSize(10);
+        props.setPause(Duration.ZERO);
+        states = new PurgeStateRepository(jdbcTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void purges_in_batches_until_done() {
+        var purger = new ChunkedPurger(states, props, meterRegistry);
+
+        assertThat(purger.purge(PurgeTarget.EMAIL_OTPS).join()).isEqualTo(30);
+
+        assertThat(remainingOtps()).isEqualTo(10);
+        var state = states.find(PurgeTarget.EMAIL_OTPS).orElseThrow();
+        assertThat(state.isFinished()).isTrue();
+        assertThat(state.rowsPurged()).isEqualTo(30);
+        assertThat(meterRegistry.get("housekeeping.purge.rows").tag("table", "email_otps").counter().count())
+                .isEqualTo(30);
+    }
+
+    @Test
+    void a_run_out_of_budget_is_resumed_with_its_cutoff() {
+        props.setTimeBudget(Duration.ZERO); // one batch per call
+        var purger = new ChunkedPurger(states, props, meterRegistry);
+
+        assertThat(purger.purge(PurgeTarget.EMAIL_OTPS).join()).isEqualTo(10);
+        var cutoff = states.find(PurgeTarget.EMAIL_OTPS).orElseThrow().cutoff();
+        assertThat(states.find(PurgeTarget.EMAIL_OTPS).orElseThrow().isFinished()).isFalse();
+
+        // e.g. after a restart
+        var restarted = new ChunkedPurger(states, props, meterRegistry);
+        assertThat(restarted.resume(PurgeTarget.EMAIL_OTPS).join()).isEqualTo(10);
+        assertThat(restarted.resume(PurgeTarget.EMAIL_OTPS).join()).isEqualTo(10);
+        assertThat(restarted.resume(PurgeTarget.EMAIL_OTPS).join()).isZero();
+
+        var state = states.find(PurgeTarget.EMAIL_OTPS).orElseThrow();
+        assertThat(state.isFinished()).isTrue();
+        assertThat(state.cutoff()).isEqualTo(cutoff);
+        assertThat(state.rowsPurged()).isEqualTo(30);
+        assertThat(remainingOtps()).isEqualTo(10);
+    }
+
+    private static void insertOtps(int count, String expiresAt, String consumedAt) {
+        jdbcTemplate.update("""
+                insert into email_otps (id, email, code_hash, purpose, expires_at, consumed_at, created_at)
+                select gen_random_uuid(), 'user' || i || '@radiofy.io', 'hash', 'EMAIL_VERIFY', %s, %s, now()
+                  from generate_series(1, ?) i
+                """.formatted(expiresAt, consumedAt), count);
+    }
+
+    private static int remainingOtps() {
+        return jdbcTemplate.queryForObject("select count(*) from email_otps", Integer.class);
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.gateway.RadioBrowserGateway;
+import io.github.fabricetiennette.radiofy.backend.radio.gateway.RadioBrowserMirrorPool;
+import io.github.fabricetiennette.radiofy.backend.radio.gateway.RadioBrowserProperties;
+import io.github.fabricetiennette.radiofy.backend.radio.gateway.RadioBrowserRestClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the gateway against local stub mirrors (JDK HttpServer).
+ */
+class RadioBrowserGatewayTest {
+
+    private static final String BODY = """
+            [{"changeuuid":"x","stationuuid":"%s","name":" FIP ","url":"http://direct.fip.fr/live/fip-midfi.mp3",
+              "url_resolved":"https://icecast.radiofrance.fr/fip-hifi.aac","favicon":"","tags":"jazz, eclectic,,",
+              "country":"France","language":"french","votes":1234,"geo_lat":null,"extra":{"nested":[1,2]},
+              "has_extended_info":false}]
+            """;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(s -> s.stop(0));
+    }
+
+    @Test
+    void fails_over_to_next_mirror_on_server_error() throws IOException {
+        String broken = stub(500, 0, "");
+        String healthy = stub(200, 0, BODY.formatted("from-healthy"));
+
+        var gateway = gateway(null, broken, healthy);
+
+        List<RadiofyStationDto> result = gateway.searchByName("fip", 5);
+
+        assertThat(result).extracting(RadiofyStationDto::id).containsExactly("from-healthy");
+        assertThat(result.get(0).name()).isEqualTo("FIP");
+        assertThat(result.get(0).streamUrl()).isEqualTo("https://icecast.radiofrance.fr/fip-hifi.aac");
+        assertThat(result.get(0).tags()).containsExactly("jazz", "eclectic");
+    }
+
+    @Test
+    void slow_mirror_is_hedged_to_the_next_one() throws IOException {
+        String slow = stub(200, 1_500, BODY.formatted("from-slow"));
+        String fast = stub(200, 0, BODY.formatted("from-fast"));
+
+        var gateway = gateway(Duration.ofMillis(100), slow, fast);
+
+        long start = System.nanoTime();
+        List<RadiofyStationDto> result = gateway.searchByName("fip", 5);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(result).extracting(RadiofyStationDto::id).containsExactly("from-fast");
+        assertThat(elapsedMillis).isLessThan(1_000);
+    }
+
+    @Test
+    void third_mirror_is_tried_when_primary_and_hedge_both_fail() throws IOException {
+        String slowBroken = stub(500, 300, "");
+        String broken = stub(503, 0, "");
+        String healthy = stub(200, 0, BODY.formatted("from-third"));
+
+        var gateway = gateway(Duration.ofMillis(100), slowBroken, broken, healthy);
+
+        assertThat(gateway.searchByName("fip", 5)).extracting(RadiofyStationDto::id).containsExactly("from-third");
+    }
+
+    private RadioBrowserGateway gateway(Duration hedgeDelay, String... mirrors) {
+        var props = new RadioBrowserProperties();
+        props.setMirrors(List.of(mirrors));
+        props.setHedgeDelay(hedgeDelay);
+        var restClients = new RadioBrowserRestClients(RestClient.builder(), props);
+        return new RadioBrowserGateway(new RadioBrowserMirrorPool(props, restClients, new SimpleMeterRegistry()), props);
+    }
+
+    private String stub(int status, long delayMillis, String body) throws IOException {
+        var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                exchange.getResponseBody().write(bytes);
+            }
+            exchange.close();
+        });
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+        servers.add(server);
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+}
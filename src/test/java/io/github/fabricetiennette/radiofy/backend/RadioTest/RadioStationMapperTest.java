@@ -0,0 +1,39 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.mapper.RadioStationMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RadioStationMapperTest {
+
+    @Test
+    void empty_and_blank_tag_strings_give_no_tags() {
+        assertThat(RadioStationMapper.parseTags(null)).isEmpty();
+        assertThat(RadioStationMapper.parseTags("")).isEmpty();
+        assertThat(RadioStationMapper.parseTags("   ")).isEmpty();
+        assertThat(RadioStationMapper.parseTags(" , ,\t,")).isEmpty();
+    }
+
+    @Test
+    void tags_are_trimmed_and_empty_ones_skipped() {
+        assertThat(RadioStationMapper.parseTags("pop, rock,,news ")).containsExactly("pop", "rock", "news");
+        assertThat(RadioStationMapper.parseTags(",jazz,")).containsExactly("jazz");
+        assertThat(RadioStationMapper.parseTags("jazz,,,")).containsExactly("jazz");
+    }
+
+    @Test
+    void many_tags_keep_their_order() {
+        assertThat(RadioStationMapper.parseTags("a,b,c,d, ,e,"))
+                .containsExactly("a", "b", "c", "d", "e");
+    }
+
+    @Test
+    void duplicates_are_kept_and_share_one_instance() {
+        var tags = RadioStationMapper.parseTags("pop,rock, pop");
+
+        assertThat(tags).containsExactly("pop", "rock", "pop");
+        assertThat(tags.get(2)).isSameAs(tags.get(0));
+        assertThat(RadioStationMapper.parseTags("pop").get(0)).isSameAs(tags.get(0));
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.service.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @Test
+    void concurrent_callers_share_one_execution() throws Exception {
+        var calls = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        try {
+            var futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> flight.execute("jazz", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+
+            // the leader stays blocked on the latch until every other caller has joined its call
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.waitingCount("jazz") < callers - 1) {
+                assertThat(System.nanoTime()).as("callers joined in time").isLessThan(deadline);
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (var f : futures) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+            }
+            assertThat(calls.get()).isEqualTo(1);
+            assertThat(flight.inFlightCount()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failure_is_propagated_and_not_remembered() {
+        assertThatThrownBy(() -> flight.execute("bbc", () -> { throw new IllegalStateException("upstream down"); }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("upstream down");
+
+        assertThat(flight.execute("bbc", () -> "ok")).isEqualTo("ok");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
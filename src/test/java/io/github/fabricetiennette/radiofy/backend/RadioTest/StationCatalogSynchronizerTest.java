@@ -0,0 +1,110 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.gateway.RadioBrowserGateway;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationRepository;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationSyncState;
+import io.github.fabricetiennette.radiofy.backend.radio.sync.StationCatalogSynchronizer;
+import io.github.fabricetiennette.radiofy.backend.radio.sync.StationSyncProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StationCatalogSynchronizerTest {
+
+    private static final Instant WATERMARK = Instant.parse("2025-01-10T12:00:00Z");
+
+    private final RadioBrowserGateway gateway = mock(RadioBrowserGateway.class);
+    private final StationRepository repository = mock(StationRepository.class);
+    private final StationSyncProperties props = new StationSyncProperties();
+    private final StationCatalogSynchronizer synchronizer = new StationCatalogSynchronizer(gateway, repository, props);
+
+    @BeforeEach
+    void setUp() {
+        props.setEnabled(true);
+        props.setPageSize(2);
+        props.setMaxPages(3);
+    }
+
+    @Test
+    void first_run_is_a_full_sync() {
+        when(repository.findSyncState()).thenReturn(StationSyncState.NEVER_SYNCED);
+        when(gateway.fetchAllStationRecords()).thenReturn(List.of(
+                station("a", "2025-01-01T00:00:00Z"),
+                station("b", "2025-01-05T00:00:00Z")));
+
+        synchronizer.sync();
+
+        verify(repository).upsert(anyList(), any(), eq(false), anyInt());
+        verify(repository).markMissingDeleted(any(), any());
+        verify(repository).saveSyncState(argThat(
+                s -> s.lastChangeAt().equals(Instant.parse("2025-01-05T00:00:00Z")) && s.lastFullSyncAt() != null));
+        assertThat(synchronizer.isReady()).isTrue();
+    }
+
+    @Test
+    void later_runs_only_apply_stations_changed_since_the_watermark() {
+        var lastFull = Instant.now().minus(1, ChronoUnit.HOURS);
+        when(repository.findSyncState()).thenReturn(new StationSyncState(WATERMARK, lastFull));
+        when(gateway.fetchRecentlyChangedStations(0, 2)).thenReturn(List.of(
+                station("c", "2025-01-10T14:00:00Z"),
+                station("d", "2025-01-10T13:00:00Z")));
+        when(gateway.fetchRecentlyChangedStations(2, 2)).thenReturn(List.of(
+                station("e", "2025-01-10T12:00:00Z"),
+                station("f", "2025-01-09T00:00:00Z")));
+
+        synchronizer.sync();
+
+        verify(repository).upsert(argThat(l -> l.size() == 2), any(), eq(true), anyInt());
+        verify(repository).upsert(argThat(l -> l.size() == 1), any(), eq(true), anyInt());
+        verify(repository).saveSyncState(new StationSyncState(Instant.parse("2025-01-10T14:00:00Z"), lastFull));
+        verify(gateway, never()).fetchAllStationRecords();
+        verify(gateway, never()).fetchRecentlyChangedStations(eq(4), anyInt());
+    }
+
+    @Test
+    void too_many_changes_fall_back_to_a_full_sync() {
+        when(repository.findSyncState()).thenReturn(new StationSyncState(WATERMARK, Instant.now()));
+        when(gateway.fetchRecentlyChangedStations(anyInt(), anyInt())).thenReturn(List.of(
+                station("x", "2025-02-01T00:00:00Z"),
+                station("y", "2025-02-01T00:00:00Z")));
+        when(gateway.fetchAllStationRecords()).thenReturn(List.of(station("x", "2025-02-01T00:00:00Z")));
+
+        synchronizer.sync();
+
+        verify(gateway).fetchAllStationRecords();
+        verify(repository).upsert(anyList(), any(), eq(false), anyInt());
+    }
+
+    @Test
+    void an_empty_full_download_leaves_the_table_alone() {
+        when(repository.findSyncState()).thenReturn(StationSyncState.NEVER_SYNCED);
+        when(gateway.fetchAllStationRecords()).thenReturn(List.of());
+
+        synchronizer.sync();
+
+        verify(repository, never()).upsert(anyList(), any(), anyBoolean(), anyInt());
+        verify(repository, never()).markMissingDeleted(any(), any());
+        assertThat(synchronizer.isReady()).isFalse();
+    }
+
+    private static RadioBrowserStationDto station(String id, String lastChange) {
+        return new RadioBrowserStationDto(id, "Station " + id, "https://stream/" + id, null,
+                "France", "FR", "french", "pop,rock", "MP3", 128, 0, 0, lastChange);
+    }
+}
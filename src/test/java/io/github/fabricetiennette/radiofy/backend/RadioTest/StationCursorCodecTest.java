@@ -0,0 +1,38 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.search.InvalidCursorException;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationCursorCodec;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCursor;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StationCursorCodecTest {
+
+    private final StationSearchCriteria criteria = new StationSearchCriteria("jazz", "FR", null, null, "MP3");
+
+    @Test
+    void cursor_round_trips_for_the_same_criteria() {
+        var cursor = new StationSearchCursor(StationSearchCursor.Source.DATABASE, new BigDecimal("1.234567"),
+                "9617a958-0601-11e8-ae97-52543be04c81");
+
+        var token = StationCursorCodec.encode(cursor, criteria);
+
+        assertThat(StationCursorCodec.decode(token, criteria)).isEqualTo(cursor);
+        assertThat(StationCursorCodec.decode(null, criteria)).isNull();
+    }
+
+    @Test
+    void cursor_of_another_search_or_garbage_is_rejected() {
+        var token = StationCursorCodec.encode(StationSearchCursor.offset(40), criteria);
+
+        assertThatThrownBy(() -> StationCursorCodec.decode(token, StationSearchCriteria.of("rock")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> StationCursorCodec.decode("not a cursor", criteria))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+}
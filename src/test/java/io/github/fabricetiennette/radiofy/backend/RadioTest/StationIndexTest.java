@@ -0,0 +1,94 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.catalog.StationIndex;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StationIndexTest {
+
+    private final StationIndex index = StationIndex.build(List.of(
+            station("1", "FIP", "France", "french", "jazz", "eclectic"),
+            station("2", "FIP Jazz", "France", "french", "jazz"),
+            station("3", "Jazz Radio", "France", "french", "jazz", "smooth jazz"),
+            station("4", "BBC Radio 1", "The United Kingdom", "english", "pop"),
+            station("5", "Radio Électro", "Belgium", "french", "electro")
+    ));
+
+    @Test
+    void name_match_ranks_before_metadata_match() {
+        var ids = index.search("jazz", 10).stream().map(RadiofyStationDto::id).toList();
+
+        assertThat(ids).containsExactly("2", "3", "1");
+    }
+
+    @Test
+    void every_token_must_match_and_prefixes_are_accepted() {
+        var ids = index.search("fip ja", 10).stream().map(RadiofyStationDto::id).toList();
+
+        assertThat(ids).containsExactly("2", "1");
+    }
+
+    @Test
+    void accents_and_case_are_ignored() {
+        var ids = index.search("ELECTRO", 10).stream().map(RadiofyStationDto::id).toList();
+
+        assertThat(ids).containsExactly("5");
+    }
+
+    @Test
+    void limit_and_blank_query_are_honored() {
+        assertThat(index.search("radio", 1)).hasSize(1);
+        assertThat(index.search("  ", 10)).isEmpty();
+        assertThat(StationIndex.EMPTY.search("fip", 10)).isEmpty();
+    }
+
+    @Test
+    void filters_apply_and_keyset_pages_cover_every_result_once() {
+        var criteria = new StationSearchCriteria(null, null, "French", null, null);
+        var ids = new ArrayList<String>();
+
+        var page = index.search(criteria, null, 2);
+        ids.addAll(page.stations().stream().map(RadiofyStationDto::id).toList());
+        while (page.next() != null) {
+            page = index.search(criteria, page.next(), 2);
+            ids.addAll(page.stations().stream().map(RadiofyStationDto::id).toList());
+        }
+
+        assertThat(ids).containsExactly("1", "2", "3", "5");
+        assertThat(index.search(new StationSearchCriteria("jazz", "france", null, "smooth jazz", null), null, 10)
+                .stations()).extracting(RadiofyStationDto::id).containsExactly("3");
+    }
+
+    @Test
+    void cursor_resumes_in_a_newer_snapshot_without_its_station() {
+        var french = new StationSearchCriteria(null, null, "French", null, null);
+        var jazz = StationSearchCriteria.of("jazz");
+        var firstFrench = index.search(french, null, 2);
+        var firstJazz = index.search(jazz, null, 1);
+        assertThat(firstFrench.stations()).extracting(RadiofyStationDto::id).containsExactly("1", "2");
+        assertThat(firstJazz.stations()).extracting(RadiofyStationDto::id).containsExactly("2");
+
+        // station "2" left the catalog before the next page was requested
+        var refreshed = StationIndex.build(List.of(
+                station("1", "FIP", "France", "french", "jazz", "eclectic"),
+                station("3", "Jazz Radio", "France", "french", "jazz", "smooth jazz"),
+                station("4", "BBC Radio 1", "The United Kingdom", "english", "pop"),
+                station("5", "Radio Électro", "Belgium", "french", "electro")
+        ));
+
+        assertThat(refreshed.search(french, firstFrench.next(), 2).stations())
+                .extracting(RadiofyStationDto::id).containsExactly("3", "5");
+        assertThat(refreshed.search(jazz, firstJazz.next(), 10).stations())
+                .extracting(RadiofyStationDto::id).containsExactly("3", "1");
+    }
+
+    private static RadiofyStationDto station(String id, String name, String country, String language, String... tags) {
+        return new RadiofyStationDto(id, name, "https://stream/" + id, null, country, null, language, List.of(tags), "MP3");
+    }
+}
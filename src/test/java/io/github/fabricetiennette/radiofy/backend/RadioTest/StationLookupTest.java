@@ -0,0 +1,92 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.cache.StationLookupCache;
+import io.github.fabricetiennette.radiofy.backend.radio.cache.StationLookupCacheProperties;
+import io.github.fabricetiennette.radiofy.backend.radio.cache.StationSearchCache;
+import io.github.fabricetiennette.radiofy.backend.radio.catalog.StationCatalog;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.gateway.RadioBrowserGateway;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationSearchRepository;
+import io.github.fabricetiennette.radiofy.backend.radio.service.RadioSearchProperties;
+import io.github.fabricetiennette.radiofy.backend.radio.service.RadioService;
+import io.github.fabricetiennette.radiofy.backend.radio.sync.StationCatalogSynchronizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class StationLookupTest {
+
+    private final RadioBrowserGateway gateway = mock(RadioBrowserGateway.class);
+    private final StationCatalog catalog = mock(StationCatalog.class);
+    private final RadioService service = new RadioService(
+            gateway,
+            catalog,
+            mock(StationSearchCache.class),
+            new StationLookupCache(new StationLookupCacheProperties(), new SimpleMeterRegistry()),
+            mock(StationSearchRepository.class),
+            mock(StationCatalogSynchronizer.class),
+            new RadioSearchProperties());
+
+    @BeforeEach
+    void setUp() {
+        when(catalog.isReady()).thenReturn(true);
+        when(catalog.findAll(anyCollection())).thenReturn(Map.of("a", station("a")));
+    }
+
+    @Test
+    void local_hits_are_not_fetched_and_results_keep_the_request_order() {
+        var stations = service.lookupStations(List.of("a", "a"));
+
+        assertThat(stations).extracting(RadiofyStationDto::id).containsExactly("a");
+        verifyNoInteractions(gateway);
+    }
+
+    @Test
+    void misses_are_fetched_in_one_request_then_served_from_the_cache() {
+        when(gateway.findByUuids(anyCollection())).thenReturn(List.of(station("c"), station("b")));
+
+        var first = service.lookupStations(List.of("b", "a", "c", "unknown"));
+        var second = service.lookupStations(List.of("c", "b"));
+
+        assertThat(first).extracting(RadiofyStationDto::id).containsExactly("b", "a", "c");
+        assertThat(second).extracting(RadiofyStationDto::id).containsExactly("c", "b");
+        verify(gateway, times(1)).findByUuids(any());
+    }
+
+    @Test
+    void ids_unknown_upstream_are_not_asked_again() {
+        when(gateway.findByUuids(anyCollection())).thenReturn(List.of(station("b")));
+
+        var first = service.lookupStations(List.of("a", "b", "gone"));
+        var second = service.lookupStations(List.of("gone", "b"));
+
+        assertThat(first).extracting(RadiofyStationDto::id).containsExactly("a", "b");
+        assertThat(second).extracting(RadiofyStationDto::id).containsExactly("b");
+        verify(gateway, times(1)).findByUuids(any());
+    }
+
+    @Test
+    void an_upstream_failure_returns_the_stations_found_locally() {
+        when(gateway.findByUuids(anyCollection())).thenThrow(new ResourceAccessException("down"));
+
+        assertThat(service.lookupStations(List.of("a", "b"))).extracting(RadiofyStationDto::id).containsExactly("a");
+    }
+
+    private static RadiofyStationDto station(String id) {
+        return new RadiofyStationDto(id, "Station " + id, "https://stream/" + id, null,
+                "France", "FR", "french", List.of(), "MP3");
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.cache.StationSearchCache;
+import io.github.fabricetiennette.radiofy.backend.radio.cache.StationSearchCacheProperties;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StationSearchCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StationSearchCache cache = new StationSearchCache(new StationSearchCacheProperties(), meterRegistry);
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void equivalent_queries_share_one_entry() {
+        cache.get("Jazz  Radio", 10, this::load);
+        cache.get(" jazz radio ", 10, this::load);
+
+        assertThat(calls).containsExactly("jazz radio|10");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "stations.search").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void smaller_limits_are_served_from_a_larger_result() {
+        cache.get("fip", 20, this::load);
+
+        assertThat(cache.get("fip", 5, this::load)).hasSize(5);
+        assertThat(calls).containsExactly("fip|20");
+    }
+
+    @Test
+    void a_larger_limit_fetches_again_unless_upstream_had_fewer_rows() {
+        cache.get("fip", 5, this::load);
+        cache.get("fip", 20, this::load);
+        assertThat(calls).containsExactly("fip|5", "fip|20");
+
+        cache.get("rare", 20, (q, limit) -> stations(3));
+        cache.get("rare", 50, this::load);
+        assertThat(calls).containsExactly("fip|5", "fip|20");
+    }
+
+    private List<RadiofyStationDto> load(String q, int limit) {
+        calls.add(q + '|' + limit);
+        return stations(limit);
+    }
+
+    private static List<RadiofyStationDto> stations(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new RadiofyStationDto("s" + i, "Station " + i, "https://stream/" + i, null,
+                        null, null, null, List.of(), "MP3"))
+                .toList();
+    }
+}
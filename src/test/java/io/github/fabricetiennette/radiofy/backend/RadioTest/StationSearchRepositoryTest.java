@@ -0,0 +1,87 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationRepository;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationSearchRepository;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class StationSearchRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:17-alpine");
+
+    static StationSearchRepository search;
+
+    @BeforeAll
+    static void loadCatalog() {
+        var dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        new StationRepository(new JdbcTemplate(dataSource)).upsert(List.of(
+                station("1", "FIP", "France", "FR", "french", "jazz,eclectic", 900),
+                station("2", "FIP Jazz", "France", "FR", "french", "jazz", 500),
+                station("3", "Jazz Radio", "France", "FR", "french", "jazz,smooth jazz", 700),
+                station("4", "BBC Radio 1", "The United Kingdom Of Great Britain And Northern Ireland", "GB", "english", "pop", 800),
+                station("5", "Radio Électro", "Belgium", "BE", "french,dutch", "electro", 100),
+                station("6", "Jazz FM", "The United Kingdom Of Great Britain And Northern Ireland", "GB", "english", "jazz", 300)
+        ), Instant.now(), false, 100);
+
+        search = new StationSearchRepository(new NamedParameterJdbcTemplate(dataSource));
+    }
+
+    @Test
+    void name_matches_rank_first_and_typos_are_tolerated() {
+        assertThat(ids(StationSearchCriteria.of("jazz radio"), 10)).first().isEqualTo("3");
+        assertThat(ids(StationSearchCriteria.of("jazz radoi"), 10)).contains("3");
+        assertThat(ids(StationSearchCriteria.of("electro"), 10)).containsExactly("5");
+    }
+
+    @Test
+    void filters_narrow_the_results() {
+        assertThat(ids(new StationSearchCriteria("jazz", "GB", null, null, null), 10)).containsExactly("6");
+        assertThat(ids(new StationSearchCriteria("radio", null, "dutch", null, null), 10)).containsExactly("5");
+        assertThat(ids(new StationSearchCriteria(null, "france", null, "jazz", null), 10)).containsExactly("1", "3", "2");
+    }
+
+    @Test
+    void keyset_pages_cover_every_result_once() {
+        var criteria = new StationSearchCriteria(null, null, null, "jazz", null);
+        var seen = new ArrayList<String>();
+
+        var page = search.search(criteria, null, 2);
+        seen.addAll(page.stations().stream().map(RadiofyStationDto::id).toList());
+        while (page.next() != null) {
+            page = search.search(criteria, page.next(), 2);
+            seen.addAll(page.stations().stream().map(RadiofyStationDto::id).toList());
+        }
+
+        assertThat(seen).containsExactly("1", "3", "2", "6");
+    }
+
+    private static List<String> ids(StationSearchCriteria criteria, int limit) {
+        return search.search(criteria, null, limit).stations().stream().map(RadiofyStationDto::id).toList();
+    }
+
+    private static RadioBrowserStationDto station(String id, String name, String country, String code,
+                                                  String language, String tags, int clicks) {
+        return new RadioBrowserStationDto(id, name, "https://stream/" + id, null, country, code, language,
+                tags, "MP3", 128, 0, clicks, "2025-01-01T00:00:00Z");
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.fabricetiennette.radiofy.backend.RadioTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.mapper.StringPool;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringPoolTest {
+
+    @Test
+    void equal_values_share_one_instance_whatever_the_source() {
+        var pool = new StringPool(16);
+
+        var first = pool.intern(new String("france"));
+        assertThat(pool.intern(new String("france"))).isSameAs(first);
+        assertThat(pool.intern("in france, now", 3, 9)).isSameAs(first);
+        assertThat(pool.intern("xfrancex".toCharArray(), 1, 7)).isSameAs(first);
+        assertThat(pool.size()).isEqualTo(1);
+    }
+
+    @Test
+    void empty_null_and_long_values_are_not_pooled() {
+        var pool = new StringPool(16);
+        var longValue = "x".repeat(65);
+
+        assertThat(pool.intern(null)).isNull();
+        assertThat(pool.intern("abc", 1, 1)).isEmpty();
+        assertThat(pool.intern(longValue)).isEqualTo(longValue);
+        assertThat(pool.intern(new String(longValue))).isNotSameAs(pool.intern(longValue));
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    void a_full_pool_returns_fresh_strings_and_keeps_its_entries() {
+        var pool = new StringPool(2);
+        var pop = pool.intern("pop");
+        pool.intern("rock");
+
+        var jazz = pool.intern(new String("jazz"));
+
+        assertThat(jazz).isEqualTo("jazz");
+        assertThat(pool.intern(new String("jazz"))).isNotSameAs(jazz);
+        assertThat(pool.intern(new String("pop"))).isSameAs(pop);
+        assertThat(pool.size()).isEqualTo(2);
+    }
+}
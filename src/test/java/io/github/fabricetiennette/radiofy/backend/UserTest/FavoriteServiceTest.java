@@ -0,0 +1,87 @@
+package io.github.fabricetiennette.radiofy.backend.UserTest;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.service.RadioService;
+import io.github.fabricetiennette.radiofy.backend.user.dto.FavoriteStationResponse;
+import io.github.fabricetiennette.radiofy.backend.user.entities.Favorite;
+import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
+import io.github.fabricetiennette.radiofy.backend.user.repositoties.FavoriteRepository;
+import io.github.fabricetiennette.radiofy.backend.user.repositoties.UserAccountRepository;
+import io.github.fabricetiennette.radiofy.backend.user.services.FavoriteService;
+import io.github.fabricetiennette.radiofy.backend.user.services.FavoritesCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FavoriteServiceTest {
+
+    private static final String EMAIL = "user@radiofy.io";
+    private static final UUID USER_ID = UUID.randomUUID();
+
+    private final FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+    private final UserAccountRepository userAccountRepository = mock(UserAccountRepository.class);
+    private final RadioService radioService = mock(RadioService.class);
+    private final FavoriteService service = new FavoriteService(favoriteRepository, userAccountRepository,
+            radioService, new FavoritesCacheProperties(), new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        var user = new UserAccount();
+        user.setId(USER_ID);
+        user.setEmail(EMAIL);
+        when(userAccountRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(favoriteRepository.findByUserIdOrderByCreatedAtDesc(USER_ID)).thenReturn(List.of(favorite("a")));
+        when(radioService.findStations(anyCollection())).thenReturn(Map.of("a", station("a")));
+    }
+
+    @Test
+    void listings_are_loaded_once_then_served_from_the_cache() {
+        service.list(EMAIL);
+        var favorites = service.list(EMAIL);
+
+        assertThat(favorites).extracting(FavoriteStationResponse::stationId).containsExactly("a");
+        assertThat(favorites.get(0).station().name()).isEqualTo("Station a");
+        verify(favoriteRepository, times(1)).findByUserIdOrderByCreatedAtDesc(USER_ID);
+    }
+
+    @Test
+    void writes_go_to_postgres_and_update_the_cached_list() {
+        service.list(EMAIL);
+
+        service.addAll(EMAIL, List.of("b", "c", "b"));
+        service.remove(EMAIL, "a");
+
+        verify(favoriteRepository).insertAll(eq(USER_ID), eq(new String[]{"b", "c"}));
+        verify(favoriteRepository).deleteOne(USER_ID, "a");
+        assertThat(service.list(EMAIL)).extracting(FavoriteStationResponse::stationId).containsExactly("b", "c");
+        verify(favoriteRepository, times(1)).findByUserIdOrderByCreatedAtDesc(any());
+    }
+
+    private static Favorite favorite(String stationId) {
+        var f = new Favorite();
+        f.setUserId(USER_ID);
+        f.setStationId(stationId);
+        f.setCreatedAt(Instant.parse("2025-01-01T00:00:00Z"));
+        return f;
+    }
+
+    private static RadiofyStationDto station(String id) {
+        return new RadiofyStationDto(id, "Station " + id, "https://stream/" + id, null,
+                "France", "FR", "french", List.of(), "MP3");
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.fabricetiennette.radiofy.backend.UserTest;
+
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserCacheProperties;
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserDetailsCache;
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserInvalidationChannel;
+import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
+import io.github.fabricetiennette.radiofy.backend.user.services.UserAuthService;
+import io.github.fabricetiennette.radiofy.backend.user.services.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserAuthServiceTest {
+
+    private static final String EMAIL = "user@radiofy.io";
+
+    private final UserService userService = mock(UserService.class);
+    private final RecordingChannel channel = new RecordingChannel();
+    private final UserDetailsCache cache = new UserDetailsCache(new UserCacheProperties(), channel, new SimpleMeterRegistry());
+    private final UserAuthService service = new UserAuthService(userService, cache);
+
+    @BeforeEach
+    void setUp() {
+        var user = new UserAccount();
+        user.setEmail(EMAIL);
+        user.setPasswordHash("{bcrypt}hash");
+        user.setRole("USER");
+        when(userService.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void users_are_loaded_once_and_erasing_credentials_does_not_touch_the_cache() {
+        var first = service.loadUserByUsername(EMAIL);
+        ((CredentialsContainer) first).eraseCredentials();
+        var second = service.loadUserByUsername(EMAIL);
+
+        assertThat(second.getPassword()).isEqualTo("{bcrypt}hash");
+        verify(userService, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void local_invalidation_reloads_and_is_published_to_other_nodes() {
+        service.loadUserByUsername(EMAIL);
+
+        cache.invalidate(EMAIL);
+        service.loadUserByUsername(EMAIL);
+
+        assertThat(channel.published).containsExactly(EMAIL);
+        verify(userService, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void remote_invalidation_reloads_without_publishing_again() {
+        service.loadUserByUsername(EMAIL);
+
+        channel.listener.onInvalidate(EMAIL);
+        service.loadUserByUsername(EMAIL);
+
+        assertThat(channel.published).isEmpty();
+        verify(userService, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void unknown_users_are_not_cached() {
+        assertThatThrownBy(() -> service.loadUserByUsername("nobody@radiofy.io"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> service.loadUserByUsername("nobody@radiofy.io"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        verify(userService, times(2)).findByEmail("nobody@radiofy.io");
+    }
+
+    private static final class RecordingChannel implements UserInvalidationChannel {
+
+        final List<String> published = new ArrayList<>();
+        Listener listener;
+
+        @Override
+        public void publish(String email) {
+            published.add(email);
+        }
+
+        @Override
+        public void publishRevocation(String email, Instant revokedBefore) {
+        }
+
+        @Override
+        public void subscribe(Listener listener) {
+            this.listener = listener;
+        }
+    }
+}
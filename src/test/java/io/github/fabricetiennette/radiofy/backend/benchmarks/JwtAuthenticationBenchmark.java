@@ -0,0 +1,157 @@
+package io.github.fabricetiennette.radiofy.backend.benchmarks;
+
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtAuthenticationFilter;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtProperties;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtService;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.JwtSigningKeys;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.VerifiedTokenCache;
+import io.github.fabricetiennette.radiofy.backend.auth.jwt.VerifiedTokenCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.github.fabricetiennette.radiofy.backend.user.cache.UserInvalidationChannel;
+import io.github.fabricetiennette.radiofy.backend.user.entities.UserAccount;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-request cost of access token verification: the former two parser builds + two
+ * verifications, the single verification on the prebuilt parser, a verified-token cache hit,
+ * and the whole filter (user lookup stubbed in memory, so only the JWT and Spring Security
+ * work is measured) without and with the cache.
+ * <p>
+ * Run from the IDE (main method) or with:
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.github.fabricetiennette.radiofy.backend.benchmarks.JwtAuthenticationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "benchmark-benchmark-benchmark-benchmark";
+    private static final UserInvalidationChannel NO_CHANNEL = mock(UserInvalidationChannel.class);
+
+    private SecretKey key;
+    private JwtService jwt;
+    private VerifiedTokenCache verifiedTokens;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter statelessFilter;
+    private JwtAuthenticationFilter cachedStatelessFilter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+        var props = new JwtProperties();
+        props.setSecret(SECRET);
+        props.setAccessExpMin(60);
+        jwt = new JwtService(props, new JwtSigningKeys(props));
+
+        var noCache = new VerifiedTokenCacheProperties();
+        noCache.setEnabled(false);
+        verifiedTokens = new VerifiedTokenCache(jwt, new VerifiedTokenCacheProperties(), NO_CHANNEL, new SimpleMeterRegistry());
+
+        UserDetails details = User.withUsername("user@radiofy.io").password("x").roles("USER").build();
+        filter = new JwtAuthenticationFilter(jwt, new VerifiedTokenCache(jwt, noCache, NO_CHANNEL, new SimpleMeterRegistry()), email -> details);
+
+        var statelessProps = new JwtProperties();
+        statelessProps.setSecret(SECRET);
+        statelessProps.setStateless(true);
+        var statelessJwt = new JwtService(statelessProps, new JwtSigningKeys(statelessProps));
+        statelessFilter = new JwtAuthenticationFilter(statelessJwt,
+                new VerifiedTokenCache(statelessJwt, noCache, NO_CHANNEL, new SimpleMeterRegistry()), email -> details);
+        cachedStatelessFilter = new JwtAuthenticationFilter(statelessJwt,
+                new VerifiedTokenCache(statelessJwt, new VerifiedTokenCacheProperties(), NO_CHANNEL, new SimpleMeterRegistry()),
+                email -> details);
+
+        var user = new UserAccount();
+        user.setId(UUID.randomUUID());
+        user.setEmail("user@radiofy.io");
+        user.setRole("USER");
+        token = jwt.generateAccess(user);
+    }
+
+    /** Former JwtService: getSubject, then isTokenValid, each with its own parser. */
+    @Benchmark
+    public boolean legacyTwoParses() {
+        String subject = Jwts.parser().verifyWith(key).build()
+                .parseSignedClaims(token).getPayload().getSubject();
+        var payload = Jwts.parser().verifyWith(key).build()
+                .parseSignedClaims(token).getPayload();
+        return subject.equals(payload.getSubject())
+                && payload.getExpiration().toInstant().isAfter(Instant.now());
+    }
+
+    @Benchmark
+    public Claims verifyOnce() {
+        return jwt.verify(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return verifiedTokens.verify(token);
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        return runFilter(filter);
+    }
+
+    @Benchmark
+    public Object filterStateless() throws Exception {
+        return runFilter(statelessFilter);
+    }
+
+    @Benchmark
+    public Object filterStatelessCached() throws Exception {
+        return runFilter(cachedStatelessFilter);
+    }
+
+    private Object runFilter(JwtAuthenticationFilter f) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/v1/user/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        f.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        var auth = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return auth;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
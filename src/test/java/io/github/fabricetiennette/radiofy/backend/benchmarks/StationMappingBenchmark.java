@@ -0,0 +1,136 @@
+package io.github.fabricetiennette.radiofy.backend.benchmarks;
+
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.mapper.RadioStationMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a 50k-station catalog (the size of the Radio Browser list) with the former
+ * split/stream implementation and with the current scanner + string pool.
+ * <p>
+ * Run from the IDE (main method) or with:
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.github.fabricetiennette.radiofy.backend.benchmarks.StationMappingBenchmark}.
+ * The GC profiler reports {@code gc.alloc.rate.norm}, i.e. bytes allocated per mapped catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class StationMappingBenchmark {
+
+    private static final int STATIONS = 50_000;
+
+    private List<RadioBrowserStationDto> catalog;
+
+    @Setup
+    public void generateCatalog() {
+        // Skewed distributions, as in the real data: a few tags/countries cover most stations
+        var rnd = new Random(42);
+        String[] tags = vocabulary("tag", 3_000);
+        String[] countries = vocabulary("Country", 200);
+        String[] languages = vocabulary("language", 150);
+
+        catalog = new ArrayList<>(STATIONS);
+        for (int i = 0; i < STATIONS; i++) {
+            var tagList = new StringBuilder();
+            int tagCount = rnd.nextInt(7);
+            for (int t = 0; t < tagCount; t++) {
+                if (t > 0) tagList.append(rnd.nextBoolean() ? "," : ", ");
+                tagList.append(pick(tags, rnd));
+            }
+            catalog.add(new RadioBrowserStationDto(
+                    "9617a958-0601-11e8-ae97-52543be04c81-" + i,
+                    " Station " + i + " ",
+                    "https://stream.example.org/" + i + ".mp3",
+                    "https://example.org/" + i + ".png",
+                    new String(pick(countries, rnd)), // fresh copies, like a JSON decoder produces
+                    null,
+                    new String(pick(languages, rnd)),
+                    tagList.toString(),
+                    "MP3",
+                    128,
+                    rnd.nextInt(1_000),
+                    rnd.nextInt(10_000),
+                    "2024-01-01T00:00:00Z"
+            ));
+        }
+    }
+
+    @Benchmark
+    public List<RadiofyStationDto> splitAndStream() {
+        var out = new ArrayList<RadiofyStationDto>(catalog.size());
+        for (var s : catalog) out.add(legacyToRadiofyDto(s));
+        return out;
+    }
+
+    @Benchmark
+    public List<RadiofyStationDto> scannerWithPool() {
+        var out = new ArrayList<RadiofyStationDto>(catalog.size());
+        for (var s : catalog) out.add(RadioStationMapper.toRadiofyDto(s));
+        return out;
+    }
+
+    /** The mapper as it was before the hand-rolled scanner and the pool. */
+    private static RadiofyStationDto legacyToRadiofyDto(RadioBrowserStationDto s) {
+        var tags = (s.tags() == null || s.tags().isBlank())
+                ? List.<String>of()
+                : List.of(s.tags().split(","));
+
+        var cleanedTags = tags.stream()
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .toList();
+
+        return new RadiofyStationDto(
+                s.stationuuid(),
+                s.name() == null ? "" : s.name().trim(),
+                s.url_resolved(),
+                s.favicon(),
+                s.country(),
+                s.countrycode(),
+                s.language(),
+                cleanedTags,
+                s.codec()
+        );
+    }
+
+    private static String[] vocabulary(String prefix, int size) {
+        var words = new String[size];
+        for (int i = 0; i < size; i++) words[i] = prefix + i;
+        return words;
+    }
+
+    private static String pick(String[] words, Random rnd) {
+        double r = rnd.nextDouble();
+        return words[(int) (words.length * r * r * r)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StationMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
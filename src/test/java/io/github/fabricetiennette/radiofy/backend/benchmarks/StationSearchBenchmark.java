@@ -0,0 +1,165 @@
+package io.github.fabricetiennette.radiofy.backend.benchmarks;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.fabricetiennette.radiofy.backend.radio.catalog.StationIndex;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadioBrowserStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.dto.RadiofyStationDto;
+import io.github.fabricetiennette.radiofy.backend.radio.mapper.RadioStationMapper;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationRepository;
+import io.github.fabricetiennette.radiofy.backend.radio.repositories.StationSearchRepository;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCriteria;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchCursor;
+import io.github.fabricetiennette.radiofy.backend.radio.search.StationSearchPage;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency on a 50k-station catalog loaded in a Postgres container (needs Docker),
+ * with the in-memory index as the reference point.
+ * <p>
+ * Run from the IDE (main method) or with:
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.github.fabricetiennette.radiofy.backend.benchmarks.StationSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class StationSearchBenchmark {
+
+    private static final int STATIONS = 50_000;
+    private static final int PAGE_SIZE = 20;
+
+    private static final String[] WORDS = {
+            "radio", "fm", "jazz", "rock", "classic", "news", "hits", "nova", "deep", "house",
+            "lounge", "chill", "metal", "soul", "funk", "latino", "country", "talk", "sport", "kids"
+    };
+    private static final String[] COUNTRIES = {"FR", "DE", "GB", "US", "ES", "IT", "BE", "NL", "BR", "JP"};
+    private static final String[] LANGUAGES = {"french", "german", "english", "spanish", "italian", "dutch"};
+
+    private PostgreSQLContainer postgres;
+    private HikariDataSource dataSource;
+    private StationSearchRepository database;
+    private StationIndex memory;
+    private StationSearchCursor deepCursor;
+
+    @Setup
+    public void loadCatalog() {
+        postgres = new PostgreSQLContainer("postgres:17-alpine");
+        postgres.start();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        var catalog = generateCatalog();
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        new StationRepository(jdbcTemplate).upsert(catalog, Instant.now(), false, 1_000);
+        jdbcTemplate.execute("analyze stations");
+
+        database = new StationSearchRepository(new NamedParameterJdbcTemplate(dataSource));
+        memory = StationIndex.build(catalog.stream().map(RadioStationMapper::toRadiofyDto).toList());
+
+        // cursor of page 50 of a broad query
+        var criteria = StationSearchCriteria.of("radio");
+        StationSearchPage page = database.search(criteria, null, PAGE_SIZE);
+        for (int i = 1; i < 50 && page.next() != null; i++) {
+            page = database.search(criteria, page.next(), PAGE_SIZE);
+        }
+        deepCursor = page.next();
+    }
+
+    @TearDown
+    public void stop() {
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public StationSearchPage databaseName() {
+        return database.search(StationSearchCriteria.of("jazz lounge"), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public StationSearchPage databaseTypo() {
+        return database.search(StationSearchCriteria.of("jaz lounj"), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public StationSearchPage databaseFiltered() {
+        return database.search(new StationSearchCriteria("rock", "DE", "german", null, null), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public StationSearchPage databaseDeepPage() {
+        return database.search(StationSearchCriteria.of("radio"), deepCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<RadiofyStationDto> memoryName() {
+        return memory.search("jazz lounge", PAGE_SIZE);
+    }
+
+    private static List<RadioBrowserStationDto> generateCatalog() {
+        var rnd = new Random(42);
+        var catalog = new ArrayList<RadioBrowserStationDto>(STATIONS);
+        for (int i = 0; i < STATIONS; i++) {
+            var name = pick(WORDS, rnd) + " " + pick(WORDS, rnd) + " " + i;
+            var tags = pick(WORDS, rnd) + "," + pick(WORDS, rnd);
+            var country = pick(COUNTRIES, rnd);
+            catalog.add(new RadioBrowserStationDto(
+                    "9617a958-0601-11e8-ae97-52543be04c81-" + i,
+                    name,
+                    "https://stream.example.org/" + i + ".mp3",
+                    null,
+                    country,
+                    country,
+                    pick(LANGUAGES, rnd),
+                    tags,
+                    "MP3",
+                    128,
+                    rnd.nextInt(1_000),
+                    rnd.nextInt(10_000),
+                    "2024-01-01T00:00:00Z"
+            ));
+        }
+        return catalog;
+    }
+
+    private static String pick(String[] words, Random rnd) {
+        double r = rnd.nextDouble();
+        return words[(int) (words.length * r * r)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StationSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}